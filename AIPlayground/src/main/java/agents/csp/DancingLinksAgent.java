@@ -0,0 +1,118 @@
+package agents.csp;
+
+import agents.Agent;
+import csp.ExactCover;
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.State;
+import problems.ExactCoverEncoding;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * An agent solving problems through their exact cover encoding, by dancing links.
+ */
+public class DancingLinksAgent extends Agent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Keep a reference to the problem, as an exact cover encoding.
+     */
+    private final @NotNull ExactCoverEncoding encoding;
+
+    /**
+     * The exact cover representation of the problem.
+     */
+    private final @NotNull ExactCover cover;
+
+    private long elapsed_time = 0;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem       The problem to be solved.
+     * @param initial_state The state to start from.
+     */
+    public DancingLinksAgent(@NotNull Problem problem, @Nullable State initial_state) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof ExactCoverEncoding)) {
+            throw new InvalidClassException("Problems for the dancing links agent need an exact cover encoding.");
+        }
+
+        this.encoding = (ExactCoverEncoding) problem;
+        this.cover = this.encoding.asExactCover(initial_state);
+    }
+
+    /**
+     * Build a new agent, starting from a random state of the problem.
+     *
+     * @param problem The problem to be solved.
+     */
+    public DancingLinksAgent(@NotNull Problem problem) throws InvalidClassException {
+        this(problem, problem.buildRandomState());
+    }
+
+    /**
+     * @return A solution.
+     * @throws UnsolvableProblem if there are no solutions.
+     */
+    public @NotNull State findSolution() throws UnsolvableProblem {
+        final long start = System.nanoTime();
+        final int[] rows = this.cover.solve();
+        this.elapsed_time = System.nanoTime() - start;
+
+        if (rows == null) {
+            throw new UnsolvableProblem("Given the provided constraints this problem is unsolvable.");
+        }
+
+        logger.debug("Solution found in {} search nodes.", this.cover.getSearchNodes());
+        return this.encoding.stateFromExactCover(rows);
+    }
+
+    /**
+     * Count the solutions, up to a limit. A limit of 2 checks that the solution is unique.
+     *
+     * @param limit The maximum number of solutions to be found.
+     * @return The number of solutions, up to `limit`.
+     */
+    public long countSolutions(long limit) {
+        final long start = System.nanoTime();
+        final long solutions = this.cover.countSolutions(limit);
+        this.elapsed_time = System.nanoTime() - start;
+        return solutions;
+    }
+
+    @Override
+    public @NotNull String solutionToString() {
+        final StringBuilder output = new StringBuilder("\n");
+
+        try {
+            final State solution = this.findSolution();
+            output.append(String.format("%s found a solution: %s", this.getClass().getSimpleName(), solution));
+            output.append(problem.isGoal(solution) ? " [solution]" : " [NOT solution]");
+            output.append("\n");
+        } catch (UnsolvableProblem e) {
+            output.append(e.toString());
+        }
+
+        final String stats = this.statsToString();
+        if (stats != null) {
+            output.insert(1, stats + "\n");
+        }
+
+        return output.toString();
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        return this.cover.statsToString() +
+                String.format("Elapsed time: %.3f ms.\n", this.elapsed_time / 1e6);
+    }
+}
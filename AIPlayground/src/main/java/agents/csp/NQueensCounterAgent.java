@@ -0,0 +1,211 @@
+package agents.csp;
+
+import agents.Agent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problems.NQueens;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An agent counting every solution of the NQueens problem, by an exhaustive backtracking search.
+ *
+ * The columns and diagonals attacked are kept as bitmasks, so that the free cells of a row
+ * are a mask, visited through its lowest set bit. The search is split by the queens of the first two rows,
+ * and the pieces are run as tasks of a `ForkJoinPool`.
+ * Mirroring a solution on the vertical axis gives another solution: only queens of the left half
+ * of the first row are searched, and their counts doubled.
+ */
+public class NQueensCounterAgent extends Agent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * The largest board whose rows fit a mask.
+     */
+    public static final int MAX_N = Long.SIZE - 1;
+
+    /**
+     * The number of threads running the tasks.
+     */
+    public final int parallelism;
+
+    private final int n;
+
+    private long solutions = -1;
+    private long nodes = 0;
+    private int tasks = 0;
+    private long elapsed_time = 0;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem     The problem to be solved.
+     * @param parallelism The number of threads running the tasks.
+     */
+    public NQueensCounterAgent(@NotNull Problem problem, int parallelism) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof NQueens)) {
+            throw new InvalidClassException("The counter agent only solves the NQueens problem.");
+        }
+
+        assert parallelism > 0;
+        this.n = ((NQueens) problem).n;
+        this.parallelism = parallelism;
+
+        if (this.n > MAX_N) {
+            throw new IllegalArgumentException(String.format("Boards larger than %d are not supported.", MAX_N));
+        }
+    }
+
+    /**
+     * Build a new agent, with a thread per available processor.
+     *
+     * @param problem The problem to be solved.
+     */
+    public NQueensCounterAgent(@NotNull Problem problem) throws InvalidClassException {
+        this(problem, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return The number of solutions of the problem.
+     */
+    public long countSolutions() {
+        if (this.solutions != -1) {
+            return this.solutions;
+        }
+
+        final long start = System.nanoTime();
+        final long all = (1L << n) - 1;
+
+        if (n == 1) {
+            this.solutions = 1;
+            this.nodes = 1;
+            this.elapsed_time = System.nanoTime() - start;
+            return this.solutions;
+        }
+
+        // The queen of the first row in the left half, or in the middle with the second one in the left half.
+        final List<Subtree> subtrees = new ArrayList<>();
+        for (int first = 0; first < (n + 1) / 2; first++) {
+            final long first_bit = 1L << first;
+            final long second_limit = n % 2 == 1 && first == n / 2 ? (1L << (n / 2)) - 1 : all;
+
+            long free = second_limit & ~(first_bit | (first_bit << 1) | (first_bit >>> 1));
+            while (free != 0) {
+                final long second_bit = free & -free;
+                free ^= second_bit;
+
+                subtrees.add(new Subtree(
+                        first_bit | second_bit,
+                        ((first_bit << 1) | second_bit) << 1,
+                        ((first_bit >>> 1) | second_bit) >>> 1
+                ));
+            }
+        }
+
+        logger.debug("Counting the solutions of {} subtrees.", subtrees.size());
+
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        long solutions = 0;
+        long nodes = 1 + (n + 1) / 2 + subtrees.size();  // The root, the first and the second rows.
+        try {
+            subtrees.forEach(pool::execute);
+            for (Subtree subtree : subtrees) {
+                solutions += subtree.join();
+                nodes += subtree.nodes;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        this.solutions = 2 * solutions;
+        this.nodes = nodes;
+        this.tasks = subtrees.size();
+        this.elapsed_time = System.nanoTime() - start;
+        return this.solutions;
+    }
+
+    /**
+     * The subtree below the queens of the first two rows.
+     */
+    private final class Subtree extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long columns, left, right;
+
+        /**
+         * The number of nodes visited, read after joining the task.
+         */
+        private long nodes = 0;
+
+        /**
+         * @param columns The columns attacked.
+         * @param left    The cells of the next row attacked along the diagonals going left.
+         * @param right   The cells of the next row attacked along the diagonals going right.
+         */
+        private Subtree(long columns, long left, long right) {
+            this.columns = columns;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected Long compute() {
+            return this.search(this.columns, this.left, this.right, (1L << n) - 1);
+        }
+
+        private long search(long columns, long left, long right, long all) {
+            if (columns == all) {
+                return 1;
+            }
+
+            long count = 0;
+            long free = all & ~(columns | left | right);
+            while (free != 0) {
+                final long bit = free & -free;
+                free ^= bit;
+
+                this.nodes++;
+                count += this.search(columns | bit, (left | bit) << 1, (right | bit) >>> 1, all);
+            }
+
+            return count;
+        }
+    }
+
+    @Override
+    public @NotNull String solutionToString() {
+        final StringBuilder output = new StringBuilder("\n");
+        output.append(String.format("%s found %d solutions with %d queens.\n",
+                this.getClass().getSimpleName(), this.countSolutions(), n));
+
+        final String stats = this.statsToString();
+        if (stats != null) {
+            output.insert(1, stats + "\n");
+        }
+
+        return output.toString();
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        if (this.solutions == -1) {
+            return null;
+        }
+
+        final double seconds = this.elapsed_time / 1e9;
+        return String.format("Visited %d nodes in %d tasks, on %d threads.\n", this.nodes, this.tasks, this.parallelism) +
+                String.format("Elapsed time: %.3f s (%.1f M nodes/s).\n",
+                        seconds, seconds > 0 ? this.nodes / seconds / 1e6 : 0);
+    }
+}
@@ -0,0 +1,132 @@
+package agents.finite_states;
+
+import agents.frontiers.HandleFrontier;
+import exceptions.BadFrontierClass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.NodeArena;
+import problem_elements.State;
+import problems.Problem;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A goal based agent storing its search nodes in a `NodeArena`, instead of allocating a `Node` per node.
+ * Its frontier holds node handles, rather than `Node` objects.
+ * The agent represents the algorithms: DFS, BFS, Min-Cost.
+ */
+public class ArenaGoalBasedAgent extends TreeSearchAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Keep the number of generated nodes.
+     */
+    private long generated_nodes = -1;
+
+    /**
+     * The nodes of the search.
+     */
+    protected final NodeArena arena = new NodeArena();
+
+    @NotNull
+    private final Class<? extends HandleFrontier> frontier_class;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved.
+     * @param frontier_class The class of the HandleFrontier to be used while searching.
+     */
+    public ArenaGoalBasedAgent(@NotNull Problem problem,
+                               @NotNull Class<? extends HandleFrontier> frontier_class) {
+        super(problem);
+        this.frontier_class = frontier_class;
+    }
+
+    /**
+     * Instantiate a `HandleFrontier` from the given class, on the arena of this agent.
+     *
+     * @return A `HandleFrontier` object.
+     * @throws BadFrontierClass On bad `HandleFrontier` class.
+     */
+    private HandleFrontier instantiateFrontierFromClass() throws BadFrontierClass {
+        try {
+            return this.frontier_class.getConstructor(NodeArena.class).newInstance(this.arena);
+        } catch (NoSuchMethodException | InstantiationException |
+                IllegalAccessException | InvocationTargetException e) {
+            throw new BadFrontierClass("Error while instantiating frontier.");
+        }
+    }
+
+    /**
+     * Allow subclasses to weight nodes, before adding them to the frontier.
+     * It is called once per node, after its parent, right after the node is added to the arena.
+     *
+     * @param node The handle of the node.
+     * @return The weight of the node, by default its path cost.
+     */
+    protected float weight(int node) {
+        return this.arena.pathCost(node);
+    }
+
+    @Override
+    protected @Nullable List<Action> searchSolutionInTree() throws BadFrontierClass {
+        assert this.depth_limit >= 0;
+        this.arena.clear();
+        final HandleFrontier frontier = this.instantiateFrontierFromClass();
+
+        final int initial_node = this.arena.root(this.initial_state);
+        frontier.add(initial_node, this.weight(initial_node));
+
+        logger.info("Starting exploration from initial state: {}.", this.initial_state);
+        final HashSet<State> explored = new HashSet<>();
+
+        try {
+            int current_node;
+            while ((current_node = frontier.pick()) != HandleFrontier.EMPTY) {
+                final State current_state = this.arena.state(current_node);
+                logger.debug("Current state: {}.", current_state);
+
+                // We have found a way to the objective state.
+                if (this.problem.isGoal(current_state)) {
+                    return this.arena.pathTo(current_node);
+                }
+
+                if (this.arena.depth(current_node) >= depth_limit) {
+                    continue;
+                }
+
+                explored.add(current_state);
+                for (Action a : current_state.getActions()) {
+                    final State child_state = current_state.performAction(a);
+
+                    if (explored.contains(child_state)) {
+                        continue;
+                    }
+
+                    final int child = this.arena.child(child_state, current_node, a);
+                    frontier.add(child, this.weight(child));
+                }
+            }
+
+            return null;
+        } finally {
+            this.explored_states = explored.size();
+            this.generated_nodes = this.arena.size();
+            this.arena.clear();  // Actions have been copied out, do not retain the nodes.
+        }
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        return super.statsToString() +
+                String.format("Number of generated nodes: %d.\n", this.generated_nodes);
+    }
+}
@@ -0,0 +1,79 @@
+package agents.finite_states;
+
+import agents.frontiers.HandleFrontier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.NodeArena;
+import problem_elements.State;
+import problems.Heuristic;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.util.Arrays;
+
+/**
+ * A utility based agent storing its search nodes in a `NodeArena`.
+ * Heuristic values are computed as by `UtilityBasedAgent`, so that both find the same solutions.
+ * The agent represents the algorithms: Best-First Greedy, A*.
+ */
+public class ArenaUtilityBasedAgent extends ArenaGoalBasedAgent {
+
+    /**
+     * If true, the Agent will consider both the heuristic value and
+     * the cost of arriving to a node while selecting the next node to explore.
+     *
+     * i.e. the agent will perform an A* based search.
+     */
+    public boolean cost_to_node = false;
+
+    @NotNull
+    private final HeuristicEvaluation evaluation;
+
+    /**
+     * The heuristic value of each node of the arena, indexed by handle,
+     * so that children can derive theirs when the problem implements `IncrementalHeuristic`.
+     */
+    private float[] heuristic_values = new float[1024];
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem        The problem to be solved. This object must implement the Heuristic interface.
+     * @param frontier_class The class of the HandleFrontier to be used while searching.
+     */
+    public ArenaUtilityBasedAgent(@NotNull Problem problem,
+                                  @NotNull Class<? extends HandleFrontier> frontier_class) throws InvalidClassException {
+        super(problem, frontier_class);
+        this.evaluation = new HeuristicEvaluation(problem);
+    }
+
+    /**
+     * Use an heuristic in place of the one of the problem, e.g. to wrap it in a `CachedHeuristic`.
+     *
+     * @param state_class The class of the states of the problem.
+     * @param heuristic   An heuristic accepting them, or null to use the one of the problem.
+     * @throws InvalidClassException If the heuristic is meant for another kind of states.
+     */
+    public <S extends State> void setHeuristic(
+            @NotNull Class<S> state_class, @Nullable Heuristic<? super S> heuristic
+    ) throws InvalidClassException {
+        this.evaluation.replace(heuristic != null ? this.checkHeuristic(state_class, heuristic) : null);
+    }
+
+    @Override
+    protected float weight(int node) {
+        if (node >= this.heuristic_values.length) {
+            this.heuristic_values = Arrays.copyOf(this.heuristic_values, Math.max(node + 1, node << 1));
+        }
+
+        final int parent = this.arena.parent(node);
+        final Action arriving_action = this.arena.arrivingAction(node);
+        final float value = parent != NodeArena.NONE && arriving_action != null ?
+                this.evaluation.value(this.arena.state(node), arriving_action, this.heuristic_values[parent]) :
+                this.evaluation.value(this.arena.state(node));
+        this.heuristic_values[node] = value;
+
+        return cost_to_node ? value + this.arena.pathCost(node) : value;
+    }
+}
@@ -0,0 +1,164 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.Node;
+import problem_elements.State;
+import problems.Problem;
+import problems.Reversible;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An agent performing a bidirectional breadth first search.
+ *
+ * It searches forward from the initial state and backward from the goal states, one layer at a time,
+ * always expanding the smaller side, and stops when the two searches meet.
+ * The solution is optimal when every action has the same cost.
+ */
+public class BidirectionalAgent extends FiniteStateAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * Keep the number of states reached by the forward search.
+     */
+    private long forward_states = -1;
+
+    /**
+     * Keep the number of states reached by the backward search.
+     */
+    private long backward_states = -1;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved. This object must implement the Reversible interface.
+     */
+    public BidirectionalAgent(@NotNull Problem problem) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof Reversible<?>)) {
+            throw new InvalidClassException("The problem must implement the Reversible interface.");
+        }
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            this.actions_sequence = searchSolution();
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Search from both ends, until the searches meet.
+     *
+     * Nodes of the backward search point towards the goal:
+     * their arriving action leads from their state to the state of their parent.
+     *
+     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
+     */
+    private @Nullable List<Action> searchSolution() {
+        @SuppressWarnings("unchecked")  // We check it in the constructor.
+        final Reversible<State> reversible = (Reversible<State>) this.problem;
+
+        final HashMap<State, Node> forward = new HashMap<>();
+        final HashMap<State, Node> backward = new HashMap<>();
+        ArrayList<Node> forward_layer = new ArrayList<>();
+        ArrayList<Node> backward_layer = new ArrayList<>();
+
+        final Node initial_node = new Node(this.initial_state);
+        forward.put(this.initial_state, initial_node);
+        forward_layer.add(initial_node);
+
+        for (State goal : reversible.getGoalStates()) {
+            final Node goal_node = new Node(goal);
+            backward.put(goal, goal_node);
+            backward_layer.add(goal_node);
+        }
+
+        logger.info("Starting exploration from initial state: {}.", initial_node.state);
+        Node[] meeting = backward.containsKey(this.initial_state) ?
+                new Node[]{initial_node, backward.get(this.initial_state)} : null;
+
+        while (meeting == null && !forward_layer.isEmpty() && !backward_layer.isEmpty()) {
+            final boolean is_forward = forward_layer.size() <= backward_layer.size();
+            final HashMap<State, Node> own = is_forward ? forward : backward;
+            final HashMap<State, Node> other = is_forward ? backward : forward;
+
+            final ArrayList<Node> next_layer = new ArrayList<>();
+            float best_cost = Float.POSITIVE_INFINITY;
+
+            // Expand the whole layer, so that the cheapest meeting point is found.
+            for (Node node : is_forward ? forward_layer : backward_layer) {
+                for (Action a : node.state.getActions()) {
+                    final State child_state = node.state.performAction(a);
+                    if (own.containsKey(child_state)) {
+                        continue;
+                    }
+
+                    final Node child = new Node(child_state, node, is_forward ? a : reversible.getInverseAction(a));
+                    own.put(child_state, child);
+                    next_layer.add(child);
+
+                    final Node match = other.get(child_state);
+                    if (match != null && child.path_cost + match.path_cost < best_cost) {
+                        best_cost = child.path_cost + match.path_cost;
+                        meeting = is_forward ? new Node[]{child, match} : new Node[]{match, child};
+                    }
+                }
+            }
+
+            if (is_forward) {
+                forward_layer = next_layer;
+            } else {
+                backward_layer = next_layer;
+            }
+        }
+
+        this.forward_states = forward.size();
+        this.backward_states = backward.size();
+
+        if (meeting == null) {
+            return null;
+        }
+
+        final ArrayList<Action> action_sequence = new ArrayList<>();
+        for (Node node = meeting[0]; node.parent != null; node = node.parent) {
+            action_sequence.add(0, node.arriving_action);
+        }
+
+        for (Node node = meeting[1]; node.parent != null; node = node.parent) {
+            action_sequence.add(node.arriving_action);
+        }
+
+        return action_sequence;
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        return String.format("Initial state: %s.\n", this.initial_state) +
+                String.format("Number of states reached forward: %d.\n", this.forward_states) +
+                String.format("Number of states reached backward: %d.\n", this.backward_states);
+    }
+}
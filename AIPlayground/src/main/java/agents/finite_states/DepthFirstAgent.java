@@ -0,0 +1,248 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.LongHashable;
+import problem_elements.MutableState;
+import problem_elements.State;
+import problems.Problem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An agent repeating a depth first search, bounded by a limit raised at each iteration.
+ *
+ * Only the current path is kept in memory, so memory is linear in the depth of the solution.
+ * States implementing `MutableState` are explored in place, so that generating a child allocates nothing.
+ * Subclasses define the cost of the nodes, the value of their states, and when a node is not expanded.
+ */
+public abstract class DepthFirstAgent extends FiniteStateAgent {
+
+    /**
+     * Returned by `search` when the goal is found.
+     */
+    protected static final float FOUND = -1;
+
+    /**
+     * Returned by `cutOff` when the node must be expanded.
+     */
+    protected static final float EXPAND = Float.NaN;
+
+    /**
+     * If set, states already visited in the current iteration, with a lower or equal cost, are pruned.
+     * Only states implementing `LongHashable` are looked up.
+     */
+    public @Nullable TranspositionTable transposition_table;
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * The actions on the path currently being explored.
+     */
+    private final ArrayList<Action> path = new ArrayList<>();
+
+    /**
+     * The states on the path currently being explored, to avoid cycles.
+     */
+    private final PathStates path_states = new PathStates();
+
+    /**
+     * The limit of each iteration.
+     */
+    private final ArrayList<Float> bounds = new ArrayList<>();
+
+    /**
+     * The number of generated nodes in each iteration.
+     */
+    private final ArrayList<Long> generated_nodes = new ArrayList<>();
+
+    /**
+     * The number of nodes generated in the current iteration.
+     */
+    private long nodes = 0;
+
+    /**
+     * The limit of the current iteration.
+     */
+    private float bound;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved.
+     */
+    public DepthFirstAgent(@NotNull Problem problem) {
+        super(problem);
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            this.actions_sequence = this.searchSolution();
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Iteratively search the solution, raising the limit through `iterate`.
+     *
+     * @return The sequence of actions, leading from the initial state to the goal.
+     * @throws UnsolvableProblem If there is no solution.
+     */
+    protected abstract @NotNull List<Action> searchSolution() throws UnsolvableProblem;
+
+    /**
+     * Tell whether a node is expanded.
+     *
+     * @param state The state of the node.
+     * @param cost  The cost of the node.
+     * @param value The value of the state.
+     * @param bound The limit of the current iteration.
+     * @return `FOUND` if the state is a goal, `EXPAND` if the node must be expanded,
+     * otherwise the smallest limit that would let the search go on from the node.
+     */
+    protected abstract float cutOff(@NotNull State state, float cost, float value, float bound);
+
+    /**
+     * @return The cost of the child reached from a node through the action.
+     */
+    protected abstract float cost(float parent_cost, @NotNull Action action);
+
+    /**
+     * @return The value of the initial state, 0 by default.
+     */
+    protected float value(@NotNull State state) {
+        return 0;
+    }
+
+    /**
+     * @return The value of a child, 0 by default.
+     */
+    protected float value(@NotNull State state, @NotNull Action arriving_action, float parent_value) {
+        return 0;
+    }
+
+    /**
+     * Search the solution within a limit.
+     *
+     * @param bound The limit of the iteration.
+     * @return `FOUND` on success, otherwise the smallest limit exceeding this one (infinite if there is none).
+     */
+    protected float iterate(float bound) {
+        this.bound = bound;
+        this.nodes = 0;
+        if (this.transposition_table != null) {
+            this.transposition_table.newIteration();
+            this.transposed(this.initial_state, 0);
+        }
+
+        final State root = this.initial_state instanceof MutableState ?
+                ((MutableState) this.initial_state).copy() : this.initial_state;
+        final float next_bound = this.search(root, 0, this.value(root));
+        this.path_states.clear();
+
+        this.bounds.add(bound);
+        this.generated_nodes.add(this.nodes);
+        return next_bound;
+    }
+
+    /**
+     * @return The actions leading to the goal, after `iterate` returned `FOUND`.
+     */
+    protected @NotNull List<Action> solution() {
+        final List<Action> solution = new ArrayList<>(this.path);
+        this.path.clear();
+        return solution;
+    }
+
+    /**
+     * Depth first search, bounded by `cutOff`.
+     * On success, `path` holds the actions leading to the goal.
+     *
+     * If the state is a `MutableState`, it is explored in place: children are generated by `apply` and `undo`.
+     * Unless it is `LongHashable`, the states that get expanded are copied, to be kept on the path.
+     *
+     * @param state The current state.
+     * @param cost  The cost of the node.
+     * @param value The value of the state.
+     * @return `FOUND` on success, otherwise the smallest limit exceeding the current one.
+     */
+    private float search(@NotNull State state, float cost, float value) {
+        this.nodes++;
+
+        final float cut_off = this.cutOff(state, cost, value, this.bound);
+        if (!Float.isNaN(cut_off)) {
+            return cut_off;
+        }
+
+        final MutableState mutable = state instanceof MutableState ? (MutableState) state : null;
+        this.path_states.push(state);
+
+        float min = Float.POSITIVE_INFINITY;
+        for (Action a : state.getActions()) {
+            final int token = mutable != null ? mutable.apply(a) : 0;
+            final State child = mutable != null ? state : state.performAction(a);
+            final float child_cost = this.cost(cost, a);
+
+            // Skip children already on the path, or already explored through a cheaper path.
+            if (!this.path_states.contains(child) && !this.transposed(child, child_cost)) {
+                this.path.add(a);
+                final float t = this.search(child, child_cost, this.value(child, a, value));
+                if (t == FOUND) {
+                    return FOUND;
+                }
+
+                this.path.remove(this.path.size() - 1);
+                min = Math.min(min, t);
+            }
+
+            if (mutable != null) {
+                mutable.undo(a, token);
+            }
+        }
+
+        this.path_states.pop(state);
+        return min;
+    }
+
+    /**
+     * Look up a state in the transposition table, if any, and record it.
+     *
+     * @return True if the state can be pruned.
+     */
+    private boolean transposed(@NotNull State state, float cost) {
+        return this.transposition_table != null && state instanceof LongHashable &&
+                this.transposition_table.seen(((LongHashable) state).longHashCode(), cost);
+    }
+
+    /**
+     * @return A line of the stats, about an iteration.
+     */
+    protected abstract @NotNull String iterationToString(int iteration, float bound, long nodes);
+
+    @Override
+    public @Nullable String statsToString() {
+        final StringBuilder stats = new StringBuilder(String.format("Initial state: %s.\n", this.initial_state));
+        stats.append(String.format("Number of iterations: %d.\n", this.bounds.size()));
+
+        long total = 0;
+        for (int i = 0; i < this.bounds.size(); i++) {
+            stats.append(this.iterationToString(i, this.bounds.get(i), this.generated_nodes.get(i))).append('\n');
+            total += this.generated_nodes.get(i);
+        }
+
+        if (this.transposition_table != null) {
+            stats.append(this.transposition_table.statsToString());
+        }
+
+        return stats.append(String.format("Total number of generated nodes: %d.\n", total)).toString();
+    }
+}
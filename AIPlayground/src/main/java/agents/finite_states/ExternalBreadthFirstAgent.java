@@ -0,0 +1,544 @@
+package agents.finite_states;
+
+import exceptions.RuntimeException;
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.LongEncoding;
+import problems.Problem;
+import problems.Reversible;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An agent performing a breadth first search on disk, with delayed duplicate detection.
+ *
+ * States are packed into a `long` by the problem, and each layer is kept in a sorted file.
+ * Successors of a layer are collected in memory up to `run_size`, sorted and written in runs;
+ * the runs are then merged, dropping duplicates and the states of the previous two layers, into the next layer.
+ * Only `run_size` states are held in memory, whatever the size of the space, and at most `max_fan_in` runs
+ * are open at once: if there are more, they are merged in several passes.
+ *
+ * Checking the previous two layers is enough because every action can be undone (the problem must be `Reversible`):
+ * a successor is then at most one layer away from its parent.
+ * The solution is optimal when every action has the same cost.
+ */
+public class ExternalBreadthFirstAgent extends FiniteStateAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * The size, in bytes, of the buffer of each open file.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The directory holding the files of the search.
+     */
+    @NotNull
+    public final Path directory;
+
+    /**
+     * The number of states sorted in memory for each run.
+     */
+    public int run_size = 1 << 22;
+
+    /**
+     * The maximum number of runs merged at once, each one holding an open file and its buffer.
+     */
+    public int max_fan_in = 128;
+
+    /**
+     * The maximum tree-depth allowed while searching for solutions.
+     */
+    public int depth_limit = Integer.MAX_VALUE;
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * The number of states in each layer.
+     */
+    private final ArrayList<Long> layer_sizes = new ArrayList<>();
+
+    /**
+     * The number of bytes written to disk.
+     */
+    private long written_bytes = 0;
+
+    /**
+     * The number of runs written, to name them.
+     */
+    private long run_count = 0;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem   The problem to be solved. This object must implement the LongEncoding and Reversible interfaces.
+     * @param directory The directory holding the files of the search.
+     */
+    public ExternalBreadthFirstAgent(@NotNull Problem problem, @NotNull Path directory) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof LongEncoding<?>) || !((LongEncoding<?>) problem).isLongEncodable()) {
+            throw new InvalidClassException("The problem must implement the LongEncoding interface and fit it.");
+        } else if (!(problem instanceof Reversible<?>)) {
+            throw new InvalidClassException("The problem must implement the Reversible interface.");
+        }
+
+        this.directory = directory;
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem, RuntimeException {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            try {
+                this.actions_sequence = this.searchSolution();
+            } catch (IOException e) {
+                throw new RuntimeException("External search failed: " + e.getMessage());
+            }
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Enumerate every state reachable from a given one, e.g. to find the diameter of the space.
+     *
+     * @param from The starting state.
+     * @return The number of states at each distance from the starting one.
+     */
+    public @NotNull List<Long> distanceHistogram(@NotNull State from) throws IOException {
+        final long start = this.encoding().encode(from);
+        this.explore(start, false);
+        this.deleteLayers();
+        return new ArrayList<>(this.layer_sizes);
+    }
+
+    private @Nullable List<Action> searchSolution() throws IOException {
+        final LongEncoding<State> encoding = this.encoding();
+        logger.info("Starting exploration from initial state: {}.", this.initial_state);
+
+        try {
+            final int depth = this.explore(encoding.encode(this.initial_state), true);
+            return depth != -1 ? this.rebuildPath(depth) : null;
+        } finally {
+            this.deleteLayers();
+        }
+    }
+
+    /**
+     * Explore the space, one layer at a time.
+     *
+     * @param start The packed starting state.
+     * @param stop_on_goal Whether to stop at the layer holding a goal.
+     * @return The depth of the goal, or -1.
+     */
+    private int explore(long start, boolean stop_on_goal) throws IOException {
+        final LongEncoding<State> encoding = this.encoding();
+        Files.createDirectories(this.directory);
+        this.layer_sizes.clear();
+
+        try (LongWriter writer = new LongWriter(this.layer(0))) {
+            writer.write(start);
+        }
+        this.layer_sizes.add(1L);
+
+        if (stop_on_goal && encoding.isPackedGoal(start)) {
+            return 0;
+        }
+
+        final long[] run = new long[this.run_size];
+        final long[] children = new long[encoding.getMaxSuccessors()];
+        final int[] actions = new int[children.length];
+
+        for (int depth = 0; depth < this.depth_limit; depth++) {
+            logger.debug("Expanding layer {} of {} states.", depth, this.layer_sizes.get(depth));
+
+            // Write the successors of the layer in sorted runs.
+            final ArrayList<Path> runs = new ArrayList<>();
+            int size = 0;
+            try (LongReader reader = new LongReader(this.layer(depth))) {
+                while (reader.hasNext()) {
+                    final int count = encoding.packedSuccessors(reader.next(), children, actions);
+                    for (int i = 0; i < count; i++) {
+                        if (size == run.length) {
+                            runs.add(this.writeRun(run, size));
+                            size = 0;
+                        }
+                        run[size++] = children[i];
+                    }
+                }
+            }
+            if (size > 0) {
+                runs.add(this.writeRun(run, size));
+            }
+
+            // Merge the runs, removing duplicates and the states of the previous two layers.
+            long layer_size = 0;
+            boolean found = false;
+            try {
+                this.reduceRuns(runs);
+
+                try (RunMerge merge = new RunMerge(runs);
+                     LongReader current = new LongReader(this.layer(depth));
+                     LongReader previous = new LongReader(depth > 0 ? this.layer(depth - 1) : null);
+                     LongWriter writer = new LongWriter(this.layer(depth + 1))) {
+                    while (merge.hasNext()) {
+                        final long state = merge.next();
+                        if (current.skipTo(state) || previous.skipTo(state)) {
+                            continue;
+                        }
+
+                        writer.write(state);
+                        layer_size++;
+                        found |= encoding.isPackedGoal(state);
+                    }
+                }
+            } finally {
+                for (Path path : runs) {
+                    Files.deleteIfExists(path);
+                }
+            }
+
+            if (layer_size == 0) {
+                Files.deleteIfExists(this.layer(depth + 1));
+                return -1;
+            }
+
+            this.layer_sizes.add(layer_size);
+            this.written_bytes += layer_size * Long.BYTES;
+
+            if (stop_on_goal && found) {
+                return depth + 1;
+            } else if (!stop_on_goal && depth > 0) {
+                Files.deleteIfExists(this.layer(depth - 1));  // Not needed to rebuild paths.
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Walk back from the goal, scanning each layer for a parent of the current state.
+     *
+     * @param depth The depth of the layer holding the goal.
+     * @return The sequence of actions, leading from the initial state to the goal.
+     */
+    private @NotNull List<Action> rebuildPath(int depth) throws IOException {
+        final LongEncoding<State> encoding = this.encoding();
+        final Action[] all_actions = encoding.getPackedActions();
+        final long[] children = new long[encoding.getMaxSuccessors()];
+        final int[] actions = new int[children.length];
+
+        long target = -1;
+        try (LongReader reader = new LongReader(this.layer(depth))) {
+            while (reader.hasNext()) {
+                final long state = reader.next();
+                if (encoding.isPackedGoal(state)) {
+                    target = state;
+                    break;
+                }
+            }
+        }
+
+        final Action[] path = new Action[depth];
+        for (int d = depth - 1; d >= 0; d--) {
+            try (LongReader reader = new LongReader(this.layer(d))) {
+                search:
+                while (true) {
+                    final long state = reader.next();
+                    final int count = encoding.packedSuccessors(state, children, actions);
+                    for (int i = 0; i < count; i++) {
+                        if (children[i] == target) {
+                            path[d] = all_actions[actions[i]];
+                            target = state;
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    private @NotNull Path writeRun(@NotNull long[] run, int size) throws IOException {
+        Arrays.sort(run, 0, size);
+
+        final Path path = this.nextRun();
+        try (LongWriter writer = new LongWriter(path)) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || run[i] != run[i - 1]) {
+                    writer.write(run[i]);
+                }
+            }
+
+            this.written_bytes += writer.written * Long.BYTES;
+        }
+
+        return path;
+    }
+
+    /**
+     * Merge the runs, `max_fan_in` at a time, until they can be merged at once.
+     *
+     * @param runs The runs, replaced by the merged ones.
+     */
+    private void reduceRuns(@NotNull List<Path> runs) throws IOException {
+        assert this.max_fan_in > 1;
+
+        while (runs.size() > this.max_fan_in) {
+            logger.debug("Merging {} runs, {} at a time.", runs.size(), this.max_fan_in);
+
+            final ArrayList<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += this.max_fan_in) {
+                final List<Path> group = runs.subList(from, Math.min(from + this.max_fan_in, runs.size()));
+
+                final Path path = this.nextRun();
+                try (RunMerge merge = new RunMerge(group);
+                     LongWriter writer = new LongWriter(path)) {
+                    while (merge.hasNext()) {
+                        writer.write(merge.next());
+                    }
+
+                    this.written_bytes += writer.written * Long.BYTES;
+                }
+
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                merged.add(path);
+            }
+
+            runs.clear();
+            runs.addAll(merged);
+        }
+    }
+
+    private @NotNull Path nextRun() {
+        return this.directory.resolve(String.format("run-%d.bin", this.run_count++));
+    }
+
+    private @NotNull Path layer(int depth) {
+        return this.directory.resolve(String.format("layer-%d.bin", depth));
+    }
+
+    private void deleteLayers() throws IOException {
+        for (int depth = 0; depth <= this.layer_sizes.size(); depth++) {
+            Files.deleteIfExists(this.layer(depth));
+        }
+    }
+
+    private @NotNull LongEncoding<State> encoding() {
+        @SuppressWarnings("unchecked")  // We check it in the constructor.
+        final LongEncoding<State> encoding = (LongEncoding<State>) this.problem;
+        return encoding;
+    }
+
+    /**
+     * Read the distinct values of several sorted runs, in order.
+     */
+    private static class RunMerge implements Closeable {
+        private final PriorityQueue<LongReader> queue = new PriorityQueue<>((a, b) -> Long.compare(a.peek(), b.peek()));
+        private long last = 0;
+        private boolean first = true;
+
+        RunMerge(@NotNull List<Path> runs) throws IOException {
+            try {
+                for (Path path : runs) {
+                    final LongReader reader = new LongReader(path);
+                    if (reader.hasNext()) {
+                        this.queue.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                }
+            } catch (IOException e) {
+                this.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Skip the duplicates of the last value returned.
+         */
+        boolean hasNext() throws IOException {
+            while (!this.first && !this.queue.isEmpty() && this.queue.peek().peek() == this.last) {
+                this.advance(this.queue.poll());
+            }
+
+            return !this.queue.isEmpty();
+        }
+
+        /**
+         * Only valid after `hasNext` returned true.
+         */
+        long next() throws IOException {
+            final LongReader reader = this.queue.poll();
+            this.last = reader.peek();
+            this.first = false;
+            this.advance(reader);
+            return this.last;
+        }
+
+        /**
+         * Consume the head of a reader, putting it back in the queue unless it is exhausted.
+         */
+        private void advance(@NotNull LongReader reader) throws IOException {
+            reader.next();
+            if (reader.hasNext()) {
+                this.queue.add(reader);
+            } else {
+                reader.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (LongReader reader : this.queue) {
+                reader.close();
+            }
+            this.queue.clear();
+        }
+    }
+
+    /**
+     * Write `long` values to a file, sequentially.
+     */
+    private static class LongWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long written = 0;
+
+        LongWriter(@NotNull Path path) throws IOException {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long value) throws IOException {
+            if (this.buffer.remaining() < Long.BYTES) {
+                this.flush();
+            }
+
+            this.buffer.putLong(value);
+            this.written++;
+        }
+
+        private void flush() throws IOException {
+            ((Buffer) this.buffer).flip();  // Through `Buffer`, to run on Java 8 as well.
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            ((Buffer) this.buffer).clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Read `long` values from a sorted file, sequentially. A null path reads as an empty file.
+     */
+    private static class LongReader implements Closeable {
+        private final @Nullable FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        LongReader(@Nullable Path path) throws IOException {
+            this.channel = path != null ? FileChannel.open(path, StandardOpenOption.READ) : null;
+            ((Buffer) this.buffer).limit(0);
+        }
+
+        boolean hasNext() throws IOException {
+            if (this.buffer.remaining() >= Long.BYTES) {
+                return true;
+            } else if (this.channel == null) {
+                return false;
+            }
+
+            this.buffer.compact();
+            while (this.buffer.position() < Long.BYTES && this.channel.read(this.buffer) > 0) {
+                // Keep reading until a whole value is available.
+            }
+            ((Buffer) this.buffer).flip();
+            return this.buffer.remaining() >= Long.BYTES;
+        }
+
+        /**
+         * Only valid after `hasNext` returned true.
+         */
+        long peek() {
+            return this.buffer.getLong(this.buffer.position());
+        }
+
+        long next() throws IOException {
+            if (!this.hasNext()) {
+                throw new IOException("Unexpected end of file.");
+            }
+
+            return this.buffer.getLong();
+        }
+
+        /**
+         * Skip the values lower than the given one.
+         *
+         * @return True if the value is in the file.
+         */
+        boolean skipTo(long value) throws IOException {
+            while (this.hasNext() && this.peek() < value) {
+                this.buffer.getLong();
+            }
+
+            return this.hasNext() && this.peek() == value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        final StringBuilder stats = new StringBuilder(String.format("Initial state: %s.\n", this.initial_state));
+        stats.append(String.format("Bytes written: %d.\n", this.written_bytes));
+
+        for (int i = 0; i < this.layer_sizes.size(); i++) {
+            stats.append(String.format("Layer %d: %d states.\n", i, this.layer_sizes.get(i)));
+        }
+
+        return stats.toString();
+    }
+}
@@ -9,8 +9,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import problem_elements.Action;
 import problem_elements.State;
+import problems.Heuristic;
 import problems.Problem;
 
+import java.io.InvalidClassException;
 import java.lang.invoke.MethodHandles;
 
 /**
@@ -28,14 +30,39 @@ public abstract class FiniteStateAgent extends Agent {
      * Build a new agent, starting from an instance of problem.
      *
      * @param problem The problem to be solved.
+     * @throws IllegalArgumentException If the problem can't enumerate the actions of its states.
      */
     public FiniteStateAgent(@NotNull Problem problem) {
         super(problem);
 
+        if (!problem.canEnumerateActions()) {
+            throw new IllegalArgumentException(String.format("The actions of %s can't be enumerated.", problem.name));
+        }
+
         logger.debug("Gathering initial state from problem instance...", problem.name);
         this.initial_state = problem.buildRandomState();
     }
 
+    /**
+     * Check that an heuristic is meant for the states of the problem, from the class of the initial state.
+     *
+     * @param state_class The class of the states accepted by the heuristic.
+     * @param heuristic   An heuristic, e.g. a `CachedHeuristic` wrapping the one of the problem.
+     * @return The same heuristic, typed for the states of the problem.
+     * @throws InvalidClassException If the heuristic is meant for another kind of states.
+     */
+    protected <S extends State> @NotNull Heuristic<State> checkHeuristic(
+            @NotNull Class<S> state_class, @NotNull Heuristic<? super S> heuristic
+    ) throws InvalidClassException {
+        if (!state_class.isInstance(this.initial_state)) {
+            throw new InvalidClassException(state_class.getName(), "The heuristic does not accept the states of the problem.");
+        }
+
+        @SuppressWarnings("unchecked")  // The states of the problem are instances of `S`.
+        final Heuristic<State> checked = (Heuristic<State>) heuristic;
+        return checked;
+    }
+
     /**
      * Return the next action to be performed by the agent.
      *
@@ -60,7 +87,7 @@ public abstract class FiniteStateAgent extends Agent {
 
             Action next;
             while ((next = this.nextAction()) != null) {
-                output.append(String.format("%d. %s.\n", i++, next.name));
+                output.append(String.format("%d. %s.\n", i++, next.getName()));
             }
         } catch (UnsolvableProblem e) {
             output.append(e.toString());
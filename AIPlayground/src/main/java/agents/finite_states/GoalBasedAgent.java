@@ -2,7 +2,6 @@ package agents.finite_states;
 
 import agents.frontiers.Frontier;
 import exceptions.BadFrontierClass;
-import exceptions.UnsolvableProblem;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
@@ -15,35 +14,25 @@ import problems.Problem;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 
 /**
  * An agent that explores a deterministic and completely known world, whose states are finite.
  * Its actions are based on a specific goal.
  * The agent represents the algorithms: DFS, BFS, Min-Cost.
  */
-public class GoalBasedAgent extends FiniteStateAgent {
+public class GoalBasedAgent extends TreeSearchAgent {
 
     private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
 
-    /**
-     * A sequence of actions from the initial state to the goal.
-     */
-    protected @Nullable List<Action> actions_sequence;
-
-
-    /**
-     * Keep the number of explored states.
-     */
-    private long explored_states = -1;
+    @NotNull
+    private final Class<? extends Frontier> frontier_class;
 
     /**
-     * The maximum tree-depth allowed while searching for solutions.
+     * The frontier used by the last search.
+     * It is kept, so that its storage can be reused when searching again (e.g. at greater depth).
      */
-    public int depth_limit = Integer.MAX_VALUE;
-
-    @NotNull
-    private final Class<? extends Frontier> frontier_class;
+    @Nullable
+    private Frontier frontier;
 
     /**
      * Build a new agent, starting from an instance of problem.
@@ -58,35 +47,26 @@ public class GoalBasedAgent extends FiniteStateAgent {
     }
 
     /**
-     * Instantiate a `Frontier` from the given class.
+     * Instantiate a `Frontier` from the given class, or clear and reuse the one of the last search.
      *
-     * @return A `Frontier` object.
+     * @return An empty `Frontier` object.
      * @throws BadFrontierClass On bad `Frontier` class.
      */
     private Frontier instantiateFrontierFromClass() throws BadFrontierClass {
+        if (this.frontier != null) {
+            this.frontier.clear();
+            return this.frontier;
+        }
+
         try {
-            return this.frontier_class.newInstance();
+            this.frontier = this.frontier_class.newInstance();
+            return this.frontier;
         } catch (InstantiationException | IllegalAccessException e) {
             throw new BadFrontierClass("Error while instantiating frontier.");
         }
 
     }
 
-    @Override
-    @Nullable
-    public Action nextAction() throws UnsolvableProblem, BadFrontierClass {
-        /* On first run, this method will explore the possible states space in order to find a solution. */
-        if (this.actions_sequence == null) {
-            this.actions_sequence = searchSolutionInTree();
-
-            if (this.actions_sequence == null) {
-                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
-            }
-        }
-
-        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
-    }
-
     /**
      * Allow subclasses to perform custom modification on the node.
      *
@@ -98,11 +78,7 @@ public class GoalBasedAgent extends FiniteStateAgent {
         return node;
     }
 
-    /**
-     * Explore the spaces tree in order to find a suitable solution to the problem.
-     *
-     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
-     */
+    @Override
     protected @Nullable ArrayList<Action> searchSolutionInTree() throws BadFrontierClass {
         assert this.depth_limit >= 0;
         final Frontier frontier = this.instantiateFrontierFromClass();
@@ -128,6 +104,7 @@ public class GoalBasedAgent extends FiniteStateAgent {
                     node = node.parent;
                 }
 
+                frontier.clear();  // The frontier is kept by the agent, do not retain its nodes.
                 this.explored_states = explored.size();
                 return action_sequence;
             }
@@ -152,10 +129,4 @@ public class GoalBasedAgent extends FiniteStateAgent {
         this.explored_states = explored.size();
         return null;
     }
-
-    @Override
-    public @Nullable String statsToString() {
-        return String.format("Initial state: %s.\n", this.initial_state) +
-                String.format("Number of explored states: %d.\n", this.explored_states);
-    }
 }
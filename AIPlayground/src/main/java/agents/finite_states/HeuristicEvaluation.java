@@ -0,0 +1,61 @@
+package agents.finite_states;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.Heuristic;
+import problems.IncrementalHeuristic;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+
+/**
+ * How the informed agents evaluate states: through the heuristic of the problem, unless it is replaced
+ * (e.g. by a `CachedHeuristic`). If the problem implements `IncrementalHeuristic`, the value of a child
+ * is derived from the one of its parent.
+ */
+class HeuristicEvaluation {
+
+    @NotNull
+    private final Heuristic<State> problem;
+
+    private @Nullable Heuristic<State> replacement;
+
+    /**
+     * @param problem The problem, that must implement the Heuristic interface.
+     */
+    HeuristicEvaluation(@NotNull Problem problem) throws InvalidClassException {
+        if (!(problem instanceof Heuristic<?>)) {
+            throw new InvalidClassException("The problem must implement the Heuristic interface.");
+        }
+
+        @SuppressWarnings("unchecked")  // The heuristic of a problem is meant for its states.
+        final Heuristic<State> heuristic = (Heuristic<State>) problem;
+        this.problem = heuristic;
+    }
+
+    /**
+     * @param replacement The heuristic used in place of the one of the problem, or null.
+     */
+    void replace(@Nullable Heuristic<State> replacement) {
+        this.replacement = replacement;
+    }
+
+    float value(@NotNull State state) {
+        return (this.replacement != null ? this.replacement : this.problem).getHeuristicValue(state);
+    }
+
+    /**
+     * @param state The state to be evaluated.
+     * @param arriving_action The action leading from the parent to the state.
+     * @param parent_value The value of the parent.
+     */
+    float value(@NotNull State state, @NotNull Action arriving_action, float parent_value) {
+        if (this.replacement == null && this.problem instanceof IncrementalHeuristic<?>) {
+            return ((IncrementalHeuristic<State>) this.problem).getHeuristicValue(state, arriving_action, parent_value);
+        }
+
+        return this.value(state);
+    }
+}
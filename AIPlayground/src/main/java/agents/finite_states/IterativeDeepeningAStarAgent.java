@@ -0,0 +1,93 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+/**
+ * An agent performing Iterative-Deepening A* (IDA*).
+ *
+ * It performs a depth first search, bounded by the f-value (path cost + heuristic) of the nodes.
+ * If no solution is found, the bound is raised to the smallest f-value that exceeded it, and the search restarts.
+ * If the problem implements `IncrementalHeuristic`, the heuristic of a child is derived from the one of its parent.
+ */
+public class IterativeDeepeningAStarAgent extends DepthFirstAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Do not try f-bounds greater than this value.
+     */
+    public float max_bound = Float.POSITIVE_INFINITY;
+
+    @NotNull
+    private final HeuristicEvaluation evaluation;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved. This object must implement the Heuristic interface.
+     */
+    public IterativeDeepeningAStarAgent(@NotNull Problem problem) throws InvalidClassException {
+        super(problem);
+        this.evaluation = new HeuristicEvaluation(problem);
+    }
+
+    @Override
+    protected @NotNull List<Action> searchSolution() throws UnsolvableProblem {
+        float bound = this.value(this.initial_state);
+
+        while (bound <= this.max_bound) {
+            logger.info("Trying exploration with f-bound: {}.", bound);
+
+            final float next_bound = this.iterate(bound);
+            if (next_bound == FOUND) {
+                return this.solution();
+            } else if (next_bound == Float.POSITIVE_INFINITY) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+
+            bound = next_bound;
+        }
+
+        throw new UnsolvableProblem("Unable to find a solution in selected f-bound range.");
+    }
+
+    @Override
+    protected float cutOff(@NotNull State state, float path_cost, float value, float bound) {
+        final float f = path_cost + value;
+        if (f > bound) {
+            return f;
+        }
+
+        return this.problem.isGoal(state) ? FOUND : EXPAND;
+    }
+
+    @Override
+    protected float cost(float parent_cost, @NotNull Action action) {
+        return parent_cost + action.cost;
+    }
+
+    @Override
+    protected float value(@NotNull State state) {
+        return this.evaluation.value(state);
+    }
+
+    @Override
+    protected float value(@NotNull State state, @NotNull Action arriving_action, float parent_value) {
+        return this.evaluation.value(state, arriving_action, parent_value);
+    }
+
+    @Override
+    protected @NotNull String iterationToString(int iteration, float bound, long nodes) {
+        return String.format("Iteration %d, f-bound %.2f: %d generated nodes.", iteration + 1, bound, nodes);
+    }
+}
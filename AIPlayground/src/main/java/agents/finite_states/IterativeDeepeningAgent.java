@@ -0,0 +1,74 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.Problem;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+/**
+ * An agent performing Iterative-Deepening-DFS natively.
+ *
+ * Unlike `IterativeGoalBasedAgent`, it does not rebuild a frontier and an explored set for each depth:
+ * it walks a single path, recursively, only avoiding the states already on the path.
+ * The cost of a node is its depth.
+ */
+public class IterativeDeepeningAgent extends DepthFirstAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Do not try trees greater than this value.
+     */
+    public int max_depth_increase = Integer.MAX_VALUE;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved.
+     */
+    public IterativeDeepeningAgent(@NotNull Problem problem) {
+        super(problem);
+    }
+
+    @Override
+    protected @NotNull List<Action> searchSolution() throws UnsolvableProblem {
+        for (int depth_limit = 0; depth_limit < this.max_depth_increase; depth_limit++) {
+            logger.info("Trying exploration with depth: {}.", depth_limit);
+
+            final float next_bound = this.iterate(depth_limit);
+            if (next_bound == FOUND) {
+                return this.solution();
+            } else if (next_bound == Float.POSITIVE_INFINITY) {
+                // No node was left unexpanded because of the limit.
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        throw new UnsolvableProblem("Unable to find a solution in selected depth range.");
+    }
+
+    @Override
+    protected float cutOff(@NotNull State state, float depth, float value, float depth_limit) {
+        if (this.problem.isGoal(state)) {
+            return FOUND;
+        }
+
+        return depth < depth_limit ? EXPAND : depth + 1;
+    }
+
+    @Override
+    protected float cost(float parent_depth, @NotNull Action action) {
+        return parent_depth + 1;
+    }
+
+    @Override
+    protected @NotNull String iterationToString(int iteration, float depth_limit, long nodes) {
+        return String.format("Depth %d: %d generated nodes.", (int) depth_limit, nodes);
+    }
+}
@@ -0,0 +1,158 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.LongEncoding;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An agent performing a breadth first search on packed states.
+ *
+ * States are packed into a `long` by the problem, the frontier is a circular array of `long`
+ * and explored states are kept in a primitive hash table: no object is allocated per node.
+ * The solution is optimal when every action has the same cost.
+ */
+public class PackedBreadthFirstAgent extends FiniteStateAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * Keep the number of expanded states.
+     */
+    private long expanded_states = -1;
+
+    /**
+     * Keep the number of reached states.
+     */
+    private long reached_states = -1;
+
+    /**
+     * Keep the duration of the search.
+     */
+    private long search_nanos = -1;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved. This object must implement the LongEncoding interface.
+     */
+    public PackedBreadthFirstAgent(@NotNull Problem problem) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof LongEncoding<?>) || !((LongEncoding<?>) problem).isLongEncodable()) {
+            throw new InvalidClassException("The problem must implement the LongEncoding interface and fit it.");
+        }
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            this.actions_sequence = searchSolution();
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Explore the packed states space in order to find a suitable solution to the problem.
+     *
+     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
+     */
+    private @Nullable List<Action> searchSolution() {
+        @SuppressWarnings("unchecked")  // We check it in the constructor.
+        final LongEncoding<State> encoding = (LongEncoding<State>) this.problem;
+
+        final long[] children = new long[encoding.getMaxSuccessors()];
+        final int[] actions = new int[children.length];
+
+        final PackedClosedSet reached = new PackedClosedSet(1 << 16);
+        long[] queue = new long[1 << 16];
+        int head = 0, size = 0;
+
+        final long initial = encoding.encode(this.initial_state);
+        reached.addRoot(initial);
+        queue[size++] = initial;
+        logger.info("Starting exploration from initial state: {}.", this.initial_state);
+
+        long goal = initial;
+        boolean found = encoding.isPackedGoal(initial);
+        long expanded = 0;
+        final long start = System.nanoTime();
+
+        while (!found && size > 0) {
+            final long current = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            expanded++;
+
+            final int count = encoding.packedSuccessors(current, children, actions);
+            for (int i = 0; i < count; i++) {
+                final long child = children[i];
+                if (!reached.add(child, current, actions[i])) {
+                    continue;
+                }
+
+                if (encoding.isPackedGoal(child)) {
+                    goal = child;
+                    found = true;
+                    break;
+                }
+
+                if (size == queue.length) {
+                    // Unroll the queue from index 0, doubling its capacity.
+                    final long[] grown = Arrays.copyOfRange(queue, head, head + (queue.length << 1));
+                    System.arraycopy(queue, 0, grown, queue.length - head, head);
+                    queue = grown;
+                    head = 0;
+                }
+
+                queue[(head + size++) & (queue.length - 1)] = child;
+            }
+        }
+
+        this.search_nanos = System.nanoTime() - start;
+        this.expanded_states = expanded;
+        this.reached_states = reached.size();
+
+        if (!found) {
+            return null;
+        }
+
+        final Action[] action_table = encoding.getPackedActions();
+        final ArrayList<Action> action_sequence = new ArrayList<>();
+        for (long code = goal; reached.action(code) != PackedClosedSet.ROOT; code = reached.parent(code)) {
+            action_sequence.add(0, action_table[reached.action(code)]);
+        }
+
+        return action_sequence;
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        return String.format("Initial state: %s.\n", this.initial_state) +
+                String.format("Number of expanded states: %d.\n", this.expanded_states) +
+                String.format("Number of reached states: %d.\n", this.reached_states) +
+                String.format("Expansions per second: %.0f.\n", this.expanded_states / (this.search_nanos / 1e9));
+    }
+}
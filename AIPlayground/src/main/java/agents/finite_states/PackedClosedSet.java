@@ -0,0 +1,157 @@
+package agents.finite_states;
+
+import java.util.Arrays;
+
+/**
+ * A set of packed states, each one remembering the packed state and the action it was reached from.
+ *
+ * It is an open addressing (linear probing) hash table on primitive arrays: no object is allocated per state.
+ */
+class PackedClosedSet {
+    /**
+     * Returned by `action` for the states added through `addRoot`.
+     */
+    static final int ROOT = -1;
+
+    /**
+     * The maximum load factor of the table, as the fraction `LOAD_NUM / LOAD_DEN`.
+     */
+    private static final int LOAD_NUM = 2, LOAD_DEN = 3;
+
+    private long[] keys;
+    private long[] parents;
+
+    /**
+     * 0 marks an empty slot, 1 a root, any other value is `action + 2`.
+     */
+    private int[] actions;
+
+    private int size = 0;
+
+    PackedClosedSet(int expected_size) {
+        int capacity = 16;
+        while (capacity * LOAD_NUM < expected_size * LOAD_DEN) {
+            capacity <<= 1;
+        }
+
+        this.allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.parents = new long[capacity];
+        this.actions = new int[capacity];
+    }
+
+    /**
+     * Spread the bits of the packed state (MurmurHash3 finalizer).
+     */
+    static long mix(long code) {
+        code ^= code >>> 33;
+        code *= 0xff51afd7ed558ccdL;
+        code ^= code >>> 33;
+        code *= 0xc4ceb9fe1a85ec53L;
+        return code ^ (code >>> 33);
+    }
+
+    private int find(long code) {
+        final int mask = this.keys.length - 1;
+
+        for (int i = (int) mix(code) & mask; ; i = (i + 1) & mask) {
+            if (this.actions[i] == 0 || this.keys[i] == code) {
+                return i;
+            }
+        }
+    }
+
+    boolean contains(long code) {
+        return this.actions[this.find(code)] != 0;
+    }
+
+    /**
+     * Add a state without parent.
+     *
+     * @return False if the state was already there.
+     */
+    boolean addRoot(long code) {
+        return this.add(code, 0, ROOT);
+    }
+
+    /**
+     * Add a state, reached from `parent` through the action `action`.
+     *
+     * @return False if the state was already there, in which case nothing changes.
+     */
+    boolean add(long code, long parent, int action) {
+        assert action >= ROOT;
+        final int i = this.find(code);
+        if (this.actions[i] != 0) {
+            return false;
+        }
+
+        this.keys[i] = code;
+        this.parents[i] = parent;
+        this.actions[i] = action + 2;
+
+        if (++this.size * LOAD_DEN > this.keys.length * LOAD_NUM) {
+            this.rehash();
+        }
+
+        return true;
+    }
+
+    /**
+     * @param code A state in the set.
+     * @return The state it was reached from.
+     */
+    long parent(long code) {
+        final int i = this.find(code);
+        assert this.actions[i] != 0;
+        return this.parents[i];
+    }
+
+    /**
+     * @param code A state in the set.
+     * @return The action it was reached through, or `ROOT`.
+     */
+    int action(long code) {
+        final int i = this.find(code);
+        assert this.actions[i] != 0;
+        return this.actions[i] - 2;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private void rehash() {
+        final long[] old_keys = this.keys;
+        final long[] old_parents = this.parents;
+        final int[] old_actions = this.actions;
+
+        this.allocate(old_keys.length << 1);
+        final int mask = this.keys.length - 1;
+        for (int j = 0; j < old_keys.length; j++) {
+            if (old_actions[j] == 0) {
+                continue;
+            }
+
+            int i = (int) mix(old_keys[j]) & mask;
+            while (this.actions[i] != 0) {
+                i = (i + 1) & mask;
+            }
+
+            this.keys[i] = old_keys[j];
+            this.parents[i] = old_parents[j];
+            this.actions[i] = old_actions[j];
+        }
+    }
+
+    /**
+     * Remove every state, keeping the allocated table.
+     */
+    void clear() {
+        Arrays.fill(this.actions, 0);
+        this.size = 0;
+    }
+}
@@ -0,0 +1,461 @@
+package agents.finite_states;
+
+import agents.frontiers.BucketHeap;
+import agents.frontiers.Frontier;
+import agents.frontiers.MinHeap;
+import exceptions.BadFrontierClass;
+import exceptions.RuntimeException;
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.Node;
+import problem_elements.State;
+import problems.Heuristic;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An agent performing a parallel A* search, in the style of Hash Distributed A* (HDA*).
+ *
+ * Each worker thread owns a frontier and a partition of the explored states, selected by the hash of the states.
+ * Generated nodes are sent to their owner, in batches, through lock-free queues; partial batches are sent
+ * every `FLUSH_INTERVAL` expanded nodes. Idle workers are parked until nodes are sent to them.
+ * The search ends when no worker has anything left to do; the solution is optimal if the heuristic is admissible.
+ */
+public class ParallelAStarAgent extends FiniteStateAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Nodes to be sent to another worker are buffered up to this number.
+     */
+    public static final int BATCH_SIZE = 64;
+
+    /**
+     * Partial batches are sent every this number of expanded nodes,
+     * so that a busy worker does not hold back the nodes of the others.
+     */
+    public static final int FLUSH_INTERVAL = 256;
+
+    /**
+     * The number of worker threads.
+     */
+    public final int threads;
+
+    /**
+     * If true, the search is repeated with 1, 2, 4, ... threads (up to `threads`),
+     * in order to report the speedup of each thread count.
+     */
+    public boolean measure_speedup = false;
+
+    @NotNull
+    private final HeuristicEvaluation evaluation;
+
+    @NotNull
+    private final Class<? extends Frontier> frontier_class;
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * The thread counts tried, and, for each of them, time and expanded nodes.
+     */
+    private final ArrayList<Integer> run_threads = new ArrayList<>();
+    private final ArrayList<Long> run_nanos = new ArrayList<>();
+    private final ArrayList<Long> run_expanded = new ArrayList<>();
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem        The problem to be solved. This object must implement the Heuristic interface.
+     * @param frontier_class The class of the Frontier used by each worker. It must extract nodes by weight,
+     *                       and replace a queued node with a cheaper one for the same state:
+     *                       a `MinHeap`, a `BucketHeap` or a subclass of them.
+     * @param threads        The number of worker threads.
+     */
+    public ParallelAStarAgent(@NotNull Problem problem,
+                              @NotNull Class<? extends Frontier> frontier_class,
+                              int threads) throws InvalidClassException {
+        super(problem);
+
+        this.evaluation = new HeuristicEvaluation(problem);
+
+        // Workers remember the cheapest cost of each state as soon as they queue it: a frontier ignoring
+        // the second node of a state would leave the state with a cost that no queued node has.
+        if (!MinHeap.class.isAssignableFrom(frontier_class) && !BucketHeap.class.isAssignableFrom(frontier_class)) {
+            throw new InvalidClassException("The frontier must replace queued nodes with cheaper ones.");
+        }
+
+        assert threads > 0;
+        this.threads = threads;
+        this.frontier_class = frontier_class;
+    }
+
+    /**
+     * Build a new agent, using a `MinHeap` frontier and a worker per available processor.
+     *
+     * @param problem The problem to be solved. This object must implement the Heuristic interface.
+     */
+    public ParallelAStarAgent(@NotNull Problem problem) throws InvalidClassException {
+        this(problem, MinHeap.class, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Use an heuristic in place of the one of the problem, e.g. to share a `CachedHeuristic` among the workers.
+     *
+     * @param state_class The class of the states of the problem.
+     * @param heuristic   An heuristic accepting them, or null to use the one of the problem.
+     * @throws InvalidClassException If the heuristic is meant for another kind of states.
+     */
+    public <S extends State> void setHeuristic(
+            @NotNull Class<S> state_class, @Nullable Heuristic<? super S> heuristic
+    ) throws InvalidClassException {
+        this.evaluation.replace(heuristic != null ? this.checkHeuristic(state_class, heuristic) : null);
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem, RuntimeException {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            if (this.measure_speedup) {
+                for (int t = 1; t < this.threads; t <<= 1) {
+                    this.searchSolution(t);
+                }
+            }
+
+            this.actions_sequence = this.searchSolution(this.threads);
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Run the search with the given number of workers.
+     *
+     * @param thread_count The number of worker threads.
+     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
+     */
+    private @Nullable List<Action> searchSolution(int thread_count) throws RuntimeException {
+        logger.info("Starting exploration from initial state {} with {} threads.", this.initial_state, thread_count);
+        final Search search = new Search(thread_count);
+
+        final long start = System.nanoTime();
+        final Thread[] workers = new Thread[thread_count];
+        for (int i = 0; i < thread_count; i++) {
+            workers[i] = new Thread(search.workers[i], String.format("%s-%d", this.getClass().getSimpleName(), i));
+            search.workers[i].thread = workers[i];
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while searching.");
+        }
+
+        long expanded = 0;
+        for (Search.Worker worker : search.workers) {
+            expanded += worker.expanded;
+        }
+
+        this.run_threads.add(thread_count);
+        this.run_nanos.add(System.nanoTime() - start);
+        this.run_expanded.add(expanded);
+
+        if (search.best_node == null) {
+            return null;
+        }
+
+        final ArrayList<Action> action_sequence = new ArrayList<>();
+        for (Node node = search.best_node; node.parent != null; node = node.parent) {
+            action_sequence.add(0, node.arriving_action);
+        }
+
+        return action_sequence;
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        final StringBuilder stats = new StringBuilder(String.format("Initial state: %s.\n", this.initial_state));
+
+        for (int i = 0; i < this.run_threads.size(); i++) {
+            final double seconds = this.run_nanos.get(i) / 1e9;
+            stats.append(String.format(
+                    "%d threads: %d expanded nodes in %.3f s (%.0f nodes/s), speedup %.2f.\n",
+                    this.run_threads.get(i), this.run_expanded.get(i), seconds,
+                    this.run_expanded.get(i) / seconds, (double) this.run_nanos.get(0) / this.run_nanos.get(i)
+            ));
+        }
+
+        return stats.toString();
+    }
+
+    /**
+     * The shared state of a single parallel search.
+     */
+    private class Search {
+        final Worker[] workers;
+
+        /**
+         * Nodes queued to a worker, plus workers that are not idle.
+         * The search is over when it drops to 0.
+         */
+        final AtomicLong pending;
+
+        /**
+         * The cost of the best solution found so far, used to prune nodes.
+         */
+        volatile float best_cost = Float.POSITIVE_INFINITY;
+
+        /**
+         * The best solution found so far.
+         */
+        @Nullable Node best_node = null;
+
+        Search(int thread_count) throws BadFrontierClass {
+            this.pending = new AtomicLong(thread_count);
+            this.workers = new Worker[thread_count];
+
+            for (int i = 0; i < thread_count; i++) {
+                this.workers[i] = new Worker(i);
+            }
+
+            final Node initial_node = new Node(initial_state);
+            initial_node.heuristic_value = evaluation.value(initial_state);
+            initial_node.weight = initial_node.heuristic_value;
+            this.workers[this.owner(initial_state)].insert(initial_node);
+        }
+
+        int owner(@NotNull State state) {
+            int h = state.hashCode() * 0x9E3779B9;
+            return Math.floorMod(h ^ (h >>> 16), this.workers.length);
+        }
+
+        synchronized void offerSolution(@NotNull Node node) {
+            if (node.path_cost < this.best_cost) {
+                this.best_node = node;
+                this.best_cost = node.path_cost;
+                logger.debug("Found a solution of cost {}.", node.path_cost);
+            }
+        }
+
+        private class Worker implements Runnable {
+            final int id;
+
+            /**
+             * Batches of nodes sent to this worker by the others.
+             */
+            final ConcurrentLinkedQueue<Node[]> inbox = new ConcurrentLinkedQueue<>();
+
+            final Frontier frontier;
+
+            /**
+             * The best path cost found for each owned state.
+             */
+            final HashMap<State, Float> explored = new HashMap<>();
+
+            /**
+             * Nodes waiting to be sent to each worker.
+             */
+            final Node[][] outgoing;
+            final int[] outgoing_sizes;
+
+            long expanded = 0;
+
+            /**
+             * The number of nodes expanded since the last time every batch was sent.
+             */
+            int since_flush = 0;
+
+            /**
+             * The thread running this worker, woken up when nodes are sent to it.
+             */
+            @Nullable Thread thread;
+
+            Worker(int id) throws BadFrontierClass {
+                this.id = id;
+                this.outgoing = new Node[workers.length][BATCH_SIZE];
+                this.outgoing_sizes = new int[workers.length];
+
+                try {
+                    this.frontier = frontier_class.getDeclaredConstructor().newInstance();
+                } catch (NoSuchMethodException | InstantiationException |
+                        IllegalAccessException | InvocationTargetException e) {
+                    throw new BadFrontierClass("Error while instantiating frontier.");
+                }
+            }
+
+            /**
+             * Add an owned node to the frontier, unless its state was already reached through a cheaper path.
+             */
+            void insert(@NotNull Node node) {
+                final Float cost = this.explored.get(node.state);
+                if (cost != null && cost <= node.path_cost) {
+                    return;
+                }
+
+                this.explored.put(node.state, node.path_cost);
+                this.frontier.add(node);
+            }
+
+            void send(int owner, @NotNull Node node) {
+                this.outgoing[owner][this.outgoing_sizes[owner]++] = node;
+                if (this.outgoing_sizes[owner] == BATCH_SIZE) {
+                    this.flush(owner);
+                }
+            }
+
+            void flush(int owner) {
+                final int size = this.outgoing_sizes[owner];
+                if (size == 0) {
+                    return;
+                }
+
+                // Count the nodes before they become visible, so that `pending` never drops to 0 too early.
+                pending.addAndGet(size);
+                if (size == BATCH_SIZE) {
+                    workers[owner].inbox.add(this.outgoing[owner]);
+                    this.outgoing[owner] = new Node[BATCH_SIZE];
+                } else {
+                    workers[owner].inbox.add(Arrays.copyOf(this.outgoing[owner], size));
+                    Arrays.fill(this.outgoing[owner], 0, size, null);
+                }
+
+                this.outgoing_sizes[owner] = 0;
+                LockSupport.unpark(workers[owner].thread);
+            }
+
+            void flushAll() {
+                for (int owner = 0; owner < workers.length; owner++) {
+                    this.flush(owner);
+                }
+
+                this.since_flush = 0;
+            }
+
+            /**
+             * Insert every received node.
+             *
+             * @param idle If true, this worker was idle: it becomes active again when receiving something.
+             * @return True if something was received.
+             */
+            boolean receive(boolean idle) {
+                Node[] batch = this.inbox.poll();
+                if (batch == null) {
+                    return false;
+                }
+
+                long received = 0;
+                while (batch != null) {
+                    for (Node node : batch) {
+                        this.insert(node);
+                    }
+
+                    received += batch.length;
+                    batch = this.inbox.poll();
+                }
+
+                pending.addAndGet((idle ? 1 : 0) - received);
+                return true;
+            }
+
+            void expand(@NotNull Node node) {
+                this.expanded++;
+
+                for (Action a : node.state.getActions()) {
+                    final Node child = new Node(node.state.performAction(a), node, a);
+                    child.heuristic_value = evaluation.value(child.state, a, node.heuristic_value);
+                    child.weight = child.path_cost + child.heuristic_value;
+
+                    if (child.weight >= best_cost) {
+                        continue;
+                    }
+
+                    final int owner = owner(child.state);
+                    if (owner == this.id) {
+                        this.insert(child);
+                    } else {
+                        this.send(owner, child);
+                    }
+                }
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    this.receive(false);
+
+                    final Node node = this.frontier.pick();
+                    if (node != null) {
+                        if (node.path_cost > this.explored.get(node.state) || node.weight >= best_cost) {
+                            continue;  // A cheaper path was found meanwhile, or the node can't improve the solution.
+                        }
+
+                        if (problem.isGoal(node.state)) {
+                            offerSolution(node);
+                        } else {
+                            this.expand(node);
+                        }
+
+                        if (++this.since_flush == FLUSH_INTERVAL) {
+                            this.flushAll();
+                        }
+
+                        continue;
+                    }
+
+                    this.flushAll();
+                    if (!this.inbox.isEmpty()) {
+                        continue;
+                    }
+
+                    // Nothing left to do: sleep until someone sends new nodes, or everyone is idle.
+                    if (pending.decrementAndGet() == 0) {
+                        for (Worker worker : workers) {
+                            LockSupport.unpark(worker.thread);
+                        }
+
+                        return;
+                    }
+
+                    while (!this.receive(true)) {
+                        if (pending.get() == 0 || Thread.currentThread().isInterrupted()) {
+                            return;
+                        }
+
+                        LockSupport.park(this);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package agents.finite_states;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problem_elements.Node;
+import problem_elements.State;
+import problems.Problem;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An agent performing a level-synchronous parallel breadth first search.
+ *
+ * Each depth layer is split among the threads of a `ForkJoinPool`, which generate the successors concurrently,
+ * using a concurrent set of visited states to discard duplicates.
+ * The successors found by each task are counted first, so that the next layer is allocated once,
+ * and each task copies its successors into its own range of it.
+ * The solution is optimal when every action has the same cost.
+ */
+public class ParallelBreadthFirstAgent extends FiniteStateAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Tasks expanding at most this number of nodes are not split further.
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * The number of threads expanding each layer.
+     */
+    public final int parallelism;
+
+    /**
+     * The maximum tree-depth allowed while searching for solutions.
+     */
+    public int depth_limit = Integer.MAX_VALUE;
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    private @Nullable List<Action> actions_sequence;
+
+    /**
+     * The number of nodes in each expanded layer.
+     */
+    private final ArrayList<Integer> layer_sizes = new ArrayList<>();
+
+    /**
+     * Keep the number of visited states.
+     */
+    private long visited_states = -1;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem     The problem to be solved.
+     * @param parallelism The number of threads expanding each layer.
+     */
+    public ParallelBreadthFirstAgent(@NotNull Problem problem, int parallelism) {
+        super(problem);
+
+        assert parallelism > 0;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Build a new agent, with a thread per available processor.
+     *
+     * @param problem The problem to be solved.
+     */
+    public ParallelBreadthFirstAgent(@NotNull Problem problem) {
+        this(problem, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public @Nullable Action nextAction() throws UnsolvableProblem {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            this.actions_sequence = searchSolution();
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Explore the states space, one layer at a time.
+     *
+     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
+     */
+    private @Nullable List<Action> searchSolution() {
+        final Node initial_node = new Node(this.initial_state);
+        logger.info("Starting exploration from initial state: {}.", initial_node.state);
+
+        final Set<State> visited = ConcurrentHashMap.newKeySet();
+        visited.add(this.initial_state);
+
+        final AtomicReference<Node> goal = new AtomicReference<>(
+                this.problem.isGoal(this.initial_state) ? initial_node : null
+        );
+
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            Node[] layer = {initial_node};
+
+            for (int depth = 0; goal.get() == null && layer.length > 0 && depth < this.depth_limit; depth++) {
+                logger.debug("Expanding layer {} of {} nodes.", depth, layer.length);
+                this.layer_sizes.add(layer.length);
+
+                final Expansion expansion = new Expansion(layer, 0, layer.length, visited, goal);
+                pool.invoke(expansion);
+
+                // The sizes of the slices give the range of each one in the next layer, which is filled in parallel.
+                final Node[] next_layer = new Node[expansion.size];
+                pool.invoke(new Placement(expansion, next_layer, 0));
+                layer = next_layer;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        this.visited_states = visited.size();
+
+        final Node goal_node = goal.get();
+        if (goal_node == null) {
+            return null;
+        }
+
+        final ArrayList<Action> action_sequence = new ArrayList<>();
+        for (Node node = goal_node; node.parent != null; node = node.parent) {
+            action_sequence.add(0, node.arriving_action);
+        }
+
+        return action_sequence;
+    }
+
+    /**
+     * Expand a slice of a layer, keeping the successors not visited yet.
+     * Once joined, the tasks form a tree, whose leaves hold the successors and whose nodes know their count.
+     */
+    private class Expansion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node[] layer;
+        private final int from, to;
+        private final Set<State> visited;
+        private final AtomicReference<Node> goal;
+
+        /**
+         * The halves of the slice, if it was split.
+         */
+        private @Nullable Expansion left, right;
+
+        /**
+         * The successors found, if the slice was not split.
+         */
+        private @Nullable ArrayList<Node> successors;
+
+        /**
+         * The number of successors found in the slice.
+         */
+        private int size = 0;
+
+        Expansion(@NotNull Node[] layer, int from, int to,
+                  @NotNull Set<State> visited, @NotNull AtomicReference<Node> goal) {
+            this.layer = layer;
+            this.from = from;
+            this.to = to;
+            this.visited = visited;
+            this.goal = goal;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > SEQUENTIAL_THRESHOLD) {
+                final int middle = (this.from + this.to) >>> 1;
+                this.left = new Expansion(this.layer, this.from, middle, this.visited, this.goal);
+                this.right = new Expansion(this.layer, middle, this.to, this.visited, this.goal);
+                invokeAll(this.left, this.right);
+
+                this.size = this.left.size + this.right.size;
+                return;
+            }
+
+            final ArrayList<Node> successors = new ArrayList<>();
+            for (int i = this.from; i < this.to && this.goal.get() == null; i++) {
+                final Node node = this.layer[i];
+
+                for (Action a : node.state.getActions()) {
+                    final State child_state = node.state.performAction(a);
+                    if (!this.visited.add(child_state)) {
+                        continue;
+                    }
+
+                    final Node child = new Node(child_state, node, a);
+                    if (problem.isGoal(child_state)) {
+                        this.goal.compareAndSet(null, child);
+                        break;
+                    }
+
+                    successors.add(child);
+                }
+            }
+
+            this.successors = successors;
+            this.size = successors.size();
+        }
+    }
+
+    /**
+     * Copy the successors found by an expansion into the next layer, each leaf writing its own range.
+     */
+    private static class Placement extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Expansion expansion;
+        private final Node[] next_layer;
+        private final int offset;
+
+        Placement(@NotNull Expansion expansion, @NotNull Node[] next_layer, int offset) {
+            this.expansion = expansion;
+            this.next_layer = next_layer;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            final Expansion left = this.expansion.left, right = this.expansion.right;
+            if (left != null && right != null) {
+                invokeAll(
+                        new Placement(left, this.next_layer, this.offset),
+                        new Placement(right, this.next_layer, this.offset + left.size)
+                );
+                return;
+            }
+
+            final ArrayList<Node> successors = this.expansion.successors;
+            assert successors != null;
+            for (int i = 0; i < successors.size(); i++) {
+                this.next_layer[this.offset + i] = successors.get(i);
+            }
+        }
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        final StringBuilder stats = new StringBuilder(String.format("Initial state: %s.\n", this.initial_state));
+        stats.append(String.format("Number of visited states: %d.\n", this.visited_states));
+
+        for (int i = 0; i < this.layer_sizes.size(); i++) {
+            stats.append(String.format("Layer %d: %d nodes.\n", i, this.layer_sizes.get(i)));
+        }
+
+        return stats.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package agents.finite_states;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.LongHashable;
+import problem_elements.MutableState;
+import problem_elements.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * The states on the path explored by a depth first search, used to avoid cycles.
+ *
+ * States implementing `LongHashable` are recorded by their hash, on a stack scanned from the top,
+ * so that states explored in place are never copied: as `LongHashable` allows, a collision may rarely prune a child.
+ * Other states are kept in a set, copying the `MutableState` ones.
+ */
+class PathStates {
+    private long[] hashes = new long[64];
+    private int hashes_size = 0;
+
+    private final HashSet<State> states = new HashSet<>();
+    private final ArrayList<State> kept = new ArrayList<>();
+
+    /**
+     * Add the state of the node being expanded, at the end of the path.
+     */
+    void push(@NotNull State state) {
+        if (state instanceof LongHashable) {
+            if (this.hashes_size == this.hashes.length) {
+                this.hashes = Arrays.copyOf(this.hashes, this.hashes_size << 1);
+            }
+
+            this.hashes[this.hashes_size++] = ((LongHashable) state).longHashCode();
+            return;
+        }
+
+        final State copy = state instanceof MutableState ? ((MutableState) state).copy() : state;
+        this.states.add(copy);
+        this.kept.add(copy);
+    }
+
+    /**
+     * Remove the state at the end of the path, which must be restored as it was pushed.
+     */
+    void pop(@NotNull State state) {
+        if (state instanceof LongHashable) {
+            this.hashes_size--;
+        } else {
+            this.states.remove(this.kept.remove(this.kept.size() - 1));
+        }
+    }
+
+    boolean contains(@NotNull State state) {
+        if (!(state instanceof LongHashable)) {
+            return this.states.contains(state);
+        }
+
+        final long hash = ((LongHashable) state).longHashCode();
+        for (int i = this.hashes_size - 1; i >= 0; i--) {  // Short cycles are the most frequent ones.
+            if (this.hashes[i] == hash) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    void clear() {
+        this.hashes_size = 0;
+        this.states.clear();
+        this.kept.clear();
+    }
+}
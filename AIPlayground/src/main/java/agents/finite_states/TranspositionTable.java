@@ -0,0 +1,137 @@
+package agents.finite_states;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size, lossy table of the states visited by a depth first search, keyed by their 64-bit hash.
+ *
+ * A state reached again, in the same iteration, with a path cost not lower than the one it was visited with,
+ * can be pruned: its subtree has already been explored, with a larger budget.
+ * Entries are grouped in buckets: when a bucket is full, the entry with the highest path cost (the smallest
+ * subtree) is replaced, but only by an entry with a lower path cost. Entries of previous iterations are free.
+ * Forgetting a state only costs some pruning, and two states sharing a hash are unlikely enough to be ignored.
+ */
+public class TranspositionTable {
+    /**
+     * The number of entries in each bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The memory taken by each entry: a key, a path cost and an iteration stamp.
+     */
+    public static final int ENTRY_BYTES = Long.BYTES + Float.BYTES + Integer.BYTES;
+
+    /**
+     * Marks empty entries. A key equal to it is stored as `EMPTY_SUBSTITUTE`.
+     */
+    private static final long EMPTY = 0, EMPTY_SUBSTITUTE = 1;
+
+    private final long[] keys;
+    private final float[] path_costs;
+    private final int[] stamps;
+    private final int bucket_mask;
+
+    /**
+     * The current iteration, entries with a different stamp are stale.
+     */
+    private int stamp = 1;
+
+    private long probes = 0, hits = 0, stores = 0, replacements = 0, rejections = 0;
+
+    /**
+     * Build a table fitting a memory budget.
+     *
+     * @param byte_budget The maximum number of bytes taken by the entries.
+     */
+    public TranspositionTable(long byte_budget) {
+        final long buckets = Math.max(1, byte_budget / (ENTRY_BYTES * BUCKET_SIZE));
+        final int capacity = (int) Math.min(Long.highestOneBit(buckets), Integer.MAX_VALUE / BUCKET_SIZE + 1);
+
+        this.bucket_mask = capacity - 1;
+        this.keys = new long[capacity * BUCKET_SIZE];
+        this.path_costs = new float[capacity * BUCKET_SIZE];
+        this.stamps = new int[capacity * BUCKET_SIZE];
+    }
+
+    /**
+     * Start a new iteration, making every entry stale.
+     */
+    public void newIteration() {
+        if (++this.stamp == 0) {  // Stamps wrapped around: old entries could look fresh.
+            Arrays.fill(this.stamps, 0);
+            this.stamp = 1;
+        }
+    }
+
+    /**
+     * Look up a state and record it.
+     *
+     * @param hash The 64-bit hash of the state.
+     * @param path_cost The cost of the path reaching the state.
+     * @return True if the state was already visited, in this iteration, with a path cost lower or equal.
+     */
+    public boolean seen(long hash, float path_cost) {
+        this.probes++;
+        final long key = hash != EMPTY ? hash : EMPTY_SUBSTITUTE;
+        final int bucket = (int) ((hash ^ (hash >>> 32)) & this.bucket_mask) * BUCKET_SIZE;
+
+        int victim = -1;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            if (this.stamps[i] != this.stamp || this.keys[i] == EMPTY) {
+                if (victim == -1 || this.stamps[victim] == this.stamp) {
+                    victim = i;
+                }
+            } else if (this.keys[i] == key) {
+                if (this.path_costs[i] <= path_cost) {
+                    this.hits++;
+                    return true;
+                }
+
+                this.path_costs[i] = path_cost;
+                return false;
+            } else if (victim == -1 || (this.stamps[victim] == this.stamp && this.path_costs[i] > this.path_costs[victim])) {
+                victim = i;
+            }
+        }
+
+        if (this.stamps[victim] == this.stamp) {
+            if (this.path_costs[victim] <= path_cost) {  // Keep the larger subtree.
+                this.rejections++;
+                return false;
+            }
+            this.replacements++;
+        }
+
+        this.keys[victim] = key;
+        this.path_costs[victim] = path_cost;
+        this.stamps[victim] = this.stamp;
+        this.stores++;
+        return false;
+    }
+
+    /**
+     * @return The number of entries of the table.
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * @return The fraction of lookups finding a state to prune.
+     */
+    public double getHitRate() {
+        return this.probes != 0 ? (double) this.hits / this.probes : 0;
+    }
+
+    public @NotNull String statsToString() {
+        return String.format("Transposition table: %d entries (%d bytes).\n",
+                this.capacity(), (long) this.capacity() * ENTRY_BYTES) +
+                String.format("Lookups: %d, pruned: %d, hit rate: %.2f%%.\n",
+                        this.probes, this.hits, this.getHitRate() * 100) +
+                String.format("Stores: %d, replacements: %d, rejected: %d.\n",
+                        this.stores, this.replacements, this.rejections);
+    }
+}
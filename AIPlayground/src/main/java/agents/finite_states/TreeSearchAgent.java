@@ -0,0 +1,70 @@
+package agents.finite_states;
+
+import exceptions.BadFrontierClass;
+import exceptions.UnsolvableProblem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Action;
+import problems.Problem;
+
+import java.util.List;
+
+/**
+ * An agent exploring the spaces tree from a frontier, until it picks a goal.
+ * Subclasses choose how nodes and frontiers are represented, through `searchSolutionInTree`.
+ */
+public abstract class TreeSearchAgent extends FiniteStateAgent {
+
+    /**
+     * A sequence of actions from the initial state to the goal.
+     */
+    protected @Nullable List<Action> actions_sequence;
+
+    /**
+     * Keep the number of explored states.
+     */
+    protected long explored_states = -1;
+
+    /**
+     * The maximum tree-depth allowed while searching for solutions.
+     */
+    public int depth_limit = Integer.MAX_VALUE;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved.
+     */
+    public TreeSearchAgent(@NotNull Problem problem) {
+        super(problem);
+    }
+
+    @Override
+    @Nullable
+    public Action nextAction() throws UnsolvableProblem, BadFrontierClass {
+        /* On first run, this method will explore the possible states space in order to find a solution. */
+        if (this.actions_sequence == null) {
+            this.actions_sequence = searchSolutionInTree();
+
+            if (this.actions_sequence == null) {
+                throw new UnsolvableProblem("There is no way to arrive from the current state to the final state.");
+            }
+        }
+
+        return !this.actions_sequence.isEmpty() ? this.actions_sequence.remove(0) : null;
+    }
+
+    /**
+     * Explore the spaces tree in order to find a suitable solution to the problem.
+     * Implementations set `explored_states`, and give up on nodes deeper than `depth_limit`.
+     *
+     * @return A (possibly null) sequence of actions, leading from the initial state to the goal.
+     */
+    protected abstract @Nullable List<Action> searchSolutionInTree() throws BadFrontierClass;
+
+    @Override
+    public @Nullable String statsToString() {
+        return String.format("Initial state: %s.\n", this.initial_state) +
+                String.format("Number of explored states: %d.\n", this.explored_states);
+    }
+}
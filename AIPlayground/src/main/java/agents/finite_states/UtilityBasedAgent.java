@@ -2,6 +2,7 @@ package agents.finite_states;
 
 import agents.frontiers.Frontier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import problem_elements.Node;
 import problem_elements.State;
 import problems.Heuristic;
@@ -25,6 +26,9 @@ public class UtilityBasedAgent extends GoalBasedAgent {
      */
     public boolean cost_to_node = false;
 
+    @NotNull
+    private final HeuristicEvaluation evaluation;
+
     /**
      * Build a new agent, starting from an instance of problem.
      *
@@ -33,18 +37,40 @@ public class UtilityBasedAgent extends GoalBasedAgent {
      */
     public UtilityBasedAgent(@NotNull Problem problem, @NotNull Class<? extends Frontier> frontier_class) throws InvalidClassException {
         super(problem, frontier_class);
+        this.evaluation = new HeuristicEvaluation(problem);
+    }
 
-        if (!(problem instanceof Heuristic<?>)) {
-            throw new InvalidClassException("The problem must implement the Heuristic interface.");
-        }
+    /**
+     * Use an heuristic in place of the one of the problem, e.g. to wrap it in a `CachedHeuristic`.
+     *
+     * @param state_class The class of the states of the problem.
+     * @param heuristic   An heuristic accepting them, or null to use the one of the problem.
+     * @throws InvalidClassException If the heuristic is meant for another kind of states.
+     */
+    public <S extends State> void setHeuristic(
+            @NotNull Class<S> state_class, @Nullable Heuristic<? super S> heuristic
+    ) throws InvalidClassException {
+        this.evaluation.replace(heuristic != null ? this.checkHeuristic(state_class, heuristic) : null);
     }
 
+    /**
+     * Unless an heuristic was set, if the problem implements `IncrementalHeuristic`,
+     * the value is derived from the one of the parent node.
+     */
     @Override
     protected @NotNull Node postProcessNode(Node node) {
-        @SuppressWarnings("unchecked")  // We check it in the constructor.
-        Heuristic<State> problem = (Heuristic<State>) this.problem;
+        final Node parent = node.parent;
+        if (parent != null && node.arriving_action != null) {
+            if (Float.isNaN(parent.heuristic_value)) {  // The root is not processed.
+                parent.heuristic_value = this.evaluation.value(parent.state);
+            }
+
+            node.heuristic_value = this.evaluation.value(node.state, node.arriving_action, parent.heuristic_value);
+        } else {
+            node.heuristic_value = this.evaluation.value(node.state);
+        }
 
-        node.weight = problem.getHeuristicValue(node.state);
+        node.weight = node.heuristic_value;
         if (cost_to_node) {
             node.weight += node.path_cost;
         }
@@ -0,0 +1,176 @@
+package agents.frontiers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.Node;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+
+/**
+ * Bucketed (Dial) frontier.
+ *
+ * Extract nodes based on their priority, as `MinHeap` does, but in O(1) per operation
+ * as long as weights are small non negative integers: each weight has its own bucket.
+ * Nodes in the same bucket are extracted in last-in-first-out order.
+ * If a state is already contained, keep the node having the smaller weight.
+ *
+ * As soon as a weight is not integral (or it is too big), every node is moved to a `MinHeap`,
+ * which is used from then on.
+ */
+public class BucketHeap implements Frontier {
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Weights greater or equal to this value make the frontier fall back to a `MinHeap`.
+     */
+    public static final int MAX_BUCKETS = 1 << 20;
+
+    /**
+     * The initial number of buckets, and the initial capacity of each bucket.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The bucket in which each contained state currently lives.
+     * Nodes found in any other bucket are stale, and skipped.
+     */
+    private final StateIndex contained_states = new StateIndex();
+
+    /**
+     * Each bucket is a stack of nodes, having the same weight.
+     */
+    private Node[][] buckets = new Node[INITIAL_CAPACITY][];
+
+    /**
+     * The number of nodes in each bucket.
+     */
+    private int[] bucket_sizes = new int[INITIAL_CAPACITY];
+
+    /**
+     * No bucket below this one contains nodes.
+     */
+    private int min_bucket = 0;
+
+    /**
+     * Once a non integral weight is found, nodes are delegated to this heap.
+     */
+    @Nullable
+    private MinHeap fallback = null;
+
+    public void add(@NotNull Node node) {
+        if (this.fallback != null) {
+            this.fallback.add(node);
+            return;
+        }
+
+        final int bucket = (int) node.weight;
+        if (bucket != node.weight || bucket < 0 || bucket >= MAX_BUCKETS) {
+            logger.info("Weight {} does not fit a bucket, falling back to a MinHeap.", node.weight);
+            this.fallBack().add(node);
+            return;
+        }
+
+        final int current = this.contained_states.get(node.state);
+        if (current != StateIndex.MISSING && current <= bucket) {
+            return;  // Nothing to do here, the contained node is not worse.
+        }
+
+        // If the state was already contained, its old node becomes stale.
+        this.contained_states.put(node.state, bucket);
+        this.push(bucket, node);
+
+        if (bucket < this.min_bucket) {
+            this.min_bucket = bucket;
+        }
+    }
+
+    @Nullable
+    public Node pick() {
+        if (this.fallback != null) {
+            return this.fallback.pick();
+        }
+
+        while (this.contained_states.size() > 0) {
+            while (this.bucket_sizes[this.min_bucket] == 0) {
+                this.min_bucket++;
+            }
+
+            final Node node = this.pop(this.min_bucket);
+            if (this.contained_states.get(node.state) == this.min_bucket) {
+                this.contained_states.remove(node.state);
+                return node;
+            }
+        }
+
+        this.clear();  // Drop stale nodes, if any.
+        return null;
+    }
+
+    public void clear() {
+        this.fallback = null;
+        this.contained_states.clear();
+
+        for (int i = 0; i < this.buckets.length; i++) {
+            if (this.bucket_sizes[i] > 0) {
+                Arrays.fill(this.buckets[i], 0, this.bucket_sizes[i], null);
+                this.bucket_sizes[i] = 0;
+            }
+        }
+
+        this.min_bucket = 0;
+    }
+
+    private void push(int bucket, @NotNull Node node) {
+        if (bucket >= this.buckets.length) {
+            final int length = Math.min(MAX_BUCKETS, Math.max(bucket + 1, this.buckets.length << 1));
+            this.buckets = Arrays.copyOf(this.buckets, length);
+            this.bucket_sizes = Arrays.copyOf(this.bucket_sizes, length);
+        }
+
+        Node[] stack = this.buckets[bucket];
+        if (stack == null) {
+            stack = this.buckets[bucket] = new Node[INITIAL_CAPACITY];
+        } else if (this.bucket_sizes[bucket] == stack.length) {
+            stack = this.buckets[bucket] = Arrays.copyOf(stack, stack.length << 1);
+        }
+
+        stack[this.bucket_sizes[bucket]++] = node;
+    }
+
+    @NotNull
+    private Node pop(int bucket) {
+        final Node[] stack = this.buckets[bucket];
+        final int top = --this.bucket_sizes[bucket];
+
+        final Node node = stack[top];
+        stack[top] = null;  // Let the garbage collector reclaim the node.
+        return node;
+    }
+
+    /**
+     * Move every contained node to a `MinHeap`, that will be used from now on.
+     *
+     * @return The `MinHeap`.
+     */
+    @NotNull
+    private MinHeap fallBack() {
+        final MinHeap heap = new MinHeap();
+
+        for (int bucket = this.min_bucket; bucket < this.buckets.length; bucket++) {
+            while (this.bucket_sizes[bucket] > 0) {
+                final Node node = this.pop(bucket);
+                if (this.contained_states.get(node.state) == bucket) {
+                    this.contained_states.remove(node.state);
+                    heap.add(node);
+                }
+            }
+        }
+
+        this.clear();
+        this.fallback = heap;
+        return heap;
+    }
+}
@@ -0,0 +1,36 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.State;
+
+import java.util.HashSet;
+
+/**
+ * The states contained in a queue frontier, so that the same state is not added twice.
+ * It is shared by the queues of `Node` objects and the queues of node handles.
+ */
+abstract class DistinctQueue {
+    private final HashSet<State> contained_states = new HashSet<>();
+
+    /**
+     * @return True if the state was not contained, and the node holding it must be stored.
+     */
+    boolean admit(@NotNull State state) {
+        return contained_states.add(state);
+    }
+
+    /**
+     * Forget the state of a node leaving the queue.
+     */
+    void release(@NotNull State state) {
+        contained_states.remove(state);
+    }
+
+    /**
+     * Subclasses MUST call this method when overriding it, to forget the states of the nodes they drop.
+     * The order does not matter: the set of states and the storage of the subclass are independent.
+     */
+    public void clear() {
+        contained_states.clear();
+    }
+}
@@ -1,22 +1,70 @@
 package agents.frontiers;
 
 import problem_elements.Node;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * First-in-first-out frontier.
  *
  * Ignore already contained states.
+ * Nodes are kept in a growable circular array, so that both `add` and `pick` are amortized O(1).
  */
 public class FIFO extends Queue {
+    /**
+     * The initial capacity of the buffer, it must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The circular buffer, its length is always a power of two.
+     */
+    private Node[] buffer = new Node[INITIAL_CAPACITY];
+
+    /**
+     * The index of the oldest node in the buffer.
+     */
+    private int head = 0;
+
+    /**
+     * The number of nodes in the buffer.
+     */
+    private int size = 0;
+
+    @Override
+    protected void push(@NotNull Node node) {
+        if (this.size == this.buffer.length) {
+            this.buffer = Rings.grow(this.buffer, this.head);
+            this.head = 0;
+        }
+
+        this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = node;
+        this.size++;
+    }
+
     @Nullable
-    public Node pick() {
-        if (!this._frontier.isEmpty()) {
-            Node node = this._frontier.remove(0);
-            this.remove(node);
-            return node;
+    @Override
+    protected Node pop() {
+        if (this.size == 0) {
+            return null;
         }
 
-        return null;
+        final Node node = this.buffer[this.head];
+        this.buffer[this.head] = null;  // Let the garbage collector reclaim the node.
+        this.head = (this.head + 1) & (this.buffer.length - 1);
+        this.size--;
+
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        Arrays.fill(this.buffer, null);
+        this.head = 0;
+        this.size = 0;
     }
 }
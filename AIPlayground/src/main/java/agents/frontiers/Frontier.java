@@ -25,4 +25,10 @@ public interface Frontier {
      */
     @Nullable
     Node pick();
+
+    /**
+     * Remove every node from the frontier.
+     * Implementations are invited to keep their storage, so that the frontier can be reused by another search.
+     */
+    void clear();
 }
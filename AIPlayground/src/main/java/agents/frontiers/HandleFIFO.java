@@ -0,0 +1,51 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.NodeArena;
+
+/**
+ * First-in-first-out handle frontier, backed by a growable circular array.
+ *
+ * Ignore already contained states.
+ */
+public class HandleFIFO extends HandleQueue {
+    private int[] buffer = new int[16];
+    private int head = 0;
+    private int size = 0;
+
+    public HandleFIFO(@NotNull NodeArena arena) {
+        super(arena);
+    }
+
+    @Override
+    protected void push(int node) {
+        if (this.size == this.buffer.length) {
+            this.buffer = Rings.grow(this.buffer, this.head);
+            this.head = 0;
+        }
+
+        this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = node;
+        this.size++;
+    }
+
+    @Override
+    protected int pop() {
+        if (this.size == 0) {
+            return EMPTY;
+        }
+
+        final int node = this.buffer[this.head];
+        this.head = (this.head + 1) & (this.buffer.length - 1);
+        this.size--;
+
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        this.head = 0;
+        this.size = 0;
+    }
+}
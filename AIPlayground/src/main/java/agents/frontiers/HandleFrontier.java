@@ -0,0 +1,35 @@
+package agents.frontiers;
+
+/**
+ * A frontier of nodes stored in a `NodeArena`, addressed by their handles.
+ * Invariant: at any time, there is at most a single node per different state.
+ *
+ * Implementations must provide a public constructor taking the `NodeArena` holding the nodes.
+ */
+public interface HandleFrontier {
+    /**
+     * Returned by `pick` when the frontier is empty.
+     */
+    int EMPTY = -1;
+
+    /**
+     * Add a new node to the frontier.
+     * If its state is already there, the implementation may choose according to its own policies.
+     *
+     * @param node The handle of the node to be added.
+     * @param weight The weight of the node.
+     */
+    void add(int node, float weight);
+
+    /**
+     * Return and remove a node from the frontier.
+     *
+     * @return The handle of a node, or `EMPTY`.
+     */
+    int pick();
+
+    /**
+     * Remove every node from the frontier, keeping its storage.
+     */
+    void clear();
+}
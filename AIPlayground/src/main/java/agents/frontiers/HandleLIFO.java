@@ -0,0 +1,41 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.NodeArena;
+
+import java.util.Arrays;
+
+/**
+ * Last-in-first-out handle frontier, backed by a growable array.
+ *
+ * Ignore already contained states.
+ */
+public class HandleLIFO extends HandleQueue {
+    private int[] stack = new int[16];
+    private int size = 0;
+
+    public HandleLIFO(@NotNull NodeArena arena) {
+        super(arena);
+    }
+
+    @Override
+    protected void push(int node) {
+        if (this.size == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.size << 1);
+        }
+
+        this.stack[this.size++] = node;
+    }
+
+    @Override
+    protected int pop() {
+        return this.size > 0 ? this.stack[--this.size] : EMPTY;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        this.size = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.NodeArena;
+import problem_elements.State;
+
+import java.util.Arrays;
+
+/**
+ * MinHeap handle frontier.
+ *
+ * Extract nodes based on their weight.
+ * If a state is already contained, keep the node having the smaller weight.
+ * It shares the indexed binary heap of `MinHeap`, so that decrease-key costs O(log n).
+ */
+public class HandleMinHeap extends IndexedHeap implements HandleFrontier {
+    @NotNull
+    private final NodeArena arena;
+
+    private int[] heap = new int[INITIAL_CAPACITY];
+
+    /**
+     * The node kept aside while sifting.
+     */
+    private int held;
+
+    public HandleMinHeap(@NotNull NodeArena arena) {
+        this.arena = arena;
+    }
+
+    public void add(int node, float weight) {
+        final int slot = this.reserve(arena.state(node), weight);
+
+        if (slot != StateIndex.MISSING) {
+            this.heap[slot] = node;
+            this.added(slot, weight);
+        }
+    }
+
+    public int pick() {
+        if (this.size == 0) {
+            return EMPTY;
+        }
+
+        final int node = this.heap[0];
+        this.removeRoot();
+        return node;
+    }
+
+    @Override
+    @NotNull
+    State stateAt(int slot) {
+        return arena.state(this.heap[slot]);
+    }
+
+    @Override
+    void move(int from, int to) {
+        this.heap[to] = this.heap[from];
+    }
+
+    @Override
+    void hold(int slot) {
+        this.held = this.heap[slot];
+    }
+
+    @Override
+    void restore(int slot) {
+        this.heap[slot] = this.held;
+    }
+
+    @Override
+    void grow(int capacity) {
+        this.heap = Arrays.copyOf(this.heap, capacity);
+    }
+
+    @Override
+    void release(int slot) {
+    }
+}
@@ -0,0 +1,49 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.NodeArena;
+
+/**
+ * Generic handle frontier implemented as queue.
+ * Do not add twice the same state.
+ *
+ * Subclasses only provide the storage policy, through `push` and `pop`.
+ */
+public abstract class HandleQueue extends DistinctQueue implements HandleFrontier {
+    @NotNull
+    protected final NodeArena arena;
+
+    protected HandleQueue(@NotNull NodeArena arena) {
+        this.arena = arena;
+    }
+
+    public void add(int node, float weight) {
+        if (this.admit(arena.state(node))) {
+            this.push(node);
+        }
+    }
+
+    public int pick() {
+        final int node = this.pop();
+
+        if (node != EMPTY) {
+            this.release(arena.state(node));
+        }
+
+        return node;
+    }
+
+    /**
+     * Store a node whose state is not already in the frontier.
+     *
+     * @param node The handle of the node to be stored.
+     */
+    protected abstract void push(int node);
+
+    /**
+     * Remove and return the next node, according to the policy of the queue.
+     *
+     * @return The handle of the next node or `EMPTY`.
+     */
+    protected abstract int pop();
+}
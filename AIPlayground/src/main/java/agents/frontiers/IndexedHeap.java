@@ -0,0 +1,169 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.State;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of weighted elements, one per state.
+ *
+ * The slot of each contained state is tracked, so that replacing an element with a cheaper one
+ * (decrease-key) costs O(log n). Weights are kept aside, to avoid chasing references while sifting.
+ * Subclasses only store the elements, e.g. `Node` objects or node handles, in an array parallel to the weights.
+ */
+abstract class IndexedHeap {
+    /**
+     * The initial capacity of the heap.
+     */
+    static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The slot of each contained state in the heap.
+     */
+    private final StateIndex slots = new StateIndex();
+
+    /**
+     * The weights of the elements.
+     */
+    private float[] weights = new float[INITIAL_CAPACITY];
+
+    /**
+     * The number of elements in the heap.
+     */
+    int size = 0;
+
+    /**
+     * @return The state of the element in the slot.
+     */
+    @NotNull
+    abstract State stateAt(int slot);
+
+    /**
+     * Move the element of a slot to another one, overwriting it.
+     */
+    abstract void move(int from, int to);
+
+    /**
+     * Keep the element of the slot aside, while sifting, until `restore` puts it back.
+     */
+    abstract void hold(int slot);
+
+    abstract void restore(int slot);
+
+    /**
+     * Grow the storage of the elements to the given capacity.
+     */
+    abstract void grow(int capacity);
+
+    /**
+     * Forget the element of the slot, which is no longer in the heap.
+     */
+    abstract void release(int slot);
+
+    /**
+     * Make room for an element to be added, and tell where to store it.
+     *
+     * @param state  The state of the element.
+     * @param weight The weight of the element.
+     * @return The slot in which the subclass must store the element, before calling `added`, or `StateIndex.MISSING`
+     * if the state is already contained with a smaller or equal weight.
+     */
+    int reserve(@NotNull State state, float weight) {
+        final int slot = slots.get(state);
+
+        if (slot != StateIndex.MISSING) {  // The heap already contains this state.
+            return this.weights[slot] > weight ? slot : StateIndex.MISSING;
+        }
+
+        if (this.size == this.weights.length) {
+            this.weights = Arrays.copyOf(this.weights, this.size << 1);
+            this.grow(this.size << 1);
+        }
+
+        return this.size++;
+    }
+
+    /**
+     * Restore the heap property, after the subclass stored an element in the slot returned by `reserve`.
+     */
+    void added(int slot, float weight) {
+        this.weights[slot] = weight;
+        slots.put(this.stateAt(slot), slot);
+        this.siftUp(slot);
+    }
+
+    /**
+     * Remove the root of the heap, after the subclass has read it.
+     */
+    void removeRoot() {
+        slots.remove(this.stateAt(0));
+
+        final int last = --this.size;
+        if (last > 0) {
+            this.set(0, last);
+            this.siftDown(0);
+        }
+
+        this.release(last);
+    }
+
+    /**
+     * Subclasses must call this method when overriding it, after dropping their own elements.
+     */
+    public void clear() {
+        this.slots.clear();
+        this.size = 0;
+    }
+
+    private void set(int to, int from) {
+        this.move(from, to);
+        this.weights[to] = this.weights[from];
+        slots.put(this.stateAt(to), to);
+    }
+
+    private void siftUp(int slot) {
+        final float weight = this.weights[slot];
+        this.hold(slot);
+
+        while (slot > 0) {
+            final int parent = (slot - 1) >>> 1;
+            if (this.weights[parent] <= weight) {
+                break;
+            }
+
+            this.set(slot, parent);
+            slot = parent;
+        }
+
+        this.place(slot, weight);
+    }
+
+    private void siftDown(int slot) {
+        final float weight = this.weights[slot];
+        final int half = this.size >>> 1;
+        this.hold(slot);
+
+        while (slot < half) {
+            int child = (slot << 1) + 1;
+            if (child + 1 < this.size && this.weights[child + 1] < this.weights[child]) {
+                child++;
+            }
+
+            if (weight <= this.weights[child]) {
+                break;
+            }
+
+            this.set(slot, child);
+            slot = child;
+        }
+
+        this.place(slot, weight);
+    }
+
+    private void place(int slot, float weight) {
+        this.restore(slot);
+        this.weights[slot] = weight;
+        slots.put(this.stateAt(slot), slot);
+    }
+}
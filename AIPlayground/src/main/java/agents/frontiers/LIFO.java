@@ -1,22 +1,60 @@
 package agents.frontiers;
 
 import problem_elements.Node;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Last-in-first-out frontier.
  *
  * Ignore already contained states.
+ * Nodes are kept in a growable array and popped from its tail, so that no shifting is ever required.
+ * The array is kept across `clear` calls, to be reused by iterative agents.
  */
 public class LIFO extends Queue {
+    /**
+     * The initial capacity of the stack.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The stack, its top is at index `size - 1`.
+     */
+    private Node[] stack = new Node[INITIAL_CAPACITY];
+
+    /**
+     * The number of nodes in the stack.
+     */
+    private int size = 0;
+
+    @Override
+    protected void push(@NotNull Node node) {
+        if (this.size == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.stack.length << 1);
+        }
+
+        this.stack[this.size++] = node;
+    }
+
     @Nullable
-    public Node pick() {
-        if (!this._frontier.isEmpty()) {
-            Node node = this._frontier.remove(0);
-            this.remove(node);
-            return node;
+    @Override
+    protected Node pop() {
+        if (this.size == 0) {
+            return null;
         }
 
-        return null;
+        final Node node = this.stack[--this.size];
+        this.stack[this.size] = null;  // Let the garbage collector reclaim the node.
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        Arrays.fill(this.stack, 0, this.size, null);
+        this.size = 0;
     }
 }
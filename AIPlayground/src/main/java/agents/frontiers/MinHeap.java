@@ -5,44 +5,84 @@ import problem_elements.State;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 /**
  * MinHeap frontier.
  *
  * Extract nodes based on their priority.
+ * If a state is already contained, keep the node having the smaller weight.
+ *
+ * It is an indexed binary heap: the slot of each state is tracked,
+ * so that replacing a node with a cheaper one (decrease-key) costs O(log n).
  */
-public class MinHeap implements Frontier {
-    private final HashMap<State, Float> contained_states = new HashMap<>();
-    private final PriorityQueue<Node> _frontier = new PriorityQueue<>();
+public class MinHeap extends IndexedHeap implements Frontier {
+    /**
+     * The heap of nodes.
+     */
+    private Node[] _frontier = new Node[INITIAL_CAPACITY];
+
+    /**
+     * The node kept aside while sifting.
+     */
+    private Node held;
 
     public void add(@NotNull Node node) {
-        Float w = contained_states.get(node.state);
-
-        if (w != null) {  // The frontier already contains this state.
-            if (w > node.weight) {  // But it has a bigger value.
-                // Remove it and insert it again.
-                _frontier.remove(node);
-                contained_states.remove(node.state);
-            } else {
-                // Nothing to do here.
-                return;
-            }
-        }
+        final int slot = this.reserve(node.state, node.weight);
 
-        contained_states.put(node.state, node.weight);
-        _frontier.add(node);
+        // Otherwise, the frontier already contains this state, with a smaller value: nothing to do here.
+        if (slot != StateIndex.MISSING) {
+            this._frontier[slot] = node;
+            this.added(slot, node.weight);
+        }
     }
 
     @Nullable
     public Node pick() {
-        if (!this._frontier.isEmpty()) {
-            final Node node = this._frontier.poll();
-            this.contained_states.remove(node.state);
-            return node;
+        if (this.size == 0) {
+            return null;
         }
 
-        return null;
+        final Node node = this._frontier[0];
+        this.removeRoot();
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this._frontier, 0, this.size, null);
+        super.clear();
+    }
+
+    @Override
+    @NotNull
+    State stateAt(int slot) {
+        return this._frontier[slot].state;
+    }
+
+    @Override
+    void move(int from, int to) {
+        this._frontier[to] = this._frontier[from];
+    }
+
+    @Override
+    void hold(int slot) {
+        this.held = this._frontier[slot];
+    }
+
+    @Override
+    void restore(int slot) {
+        this._frontier[slot] = this.held;
+        this.held = null;
+    }
+
+    @Override
+    void grow(int capacity) {
+        this._frontier = Arrays.copyOf(this._frontier, capacity);
+    }
+
+    @Override
+    void release(int slot) {
+        this._frontier[slot] = null;  // Let the garbage collector reclaim the node.
     }
 }
@@ -1,35 +1,45 @@
 package agents.frontiers;
 
 import problem_elements.Node;
-import problem_elements.State;
 import org.jetbrains.annotations.NotNull;
-
-import java.util.ArrayList;
-import java.util.HashSet;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Generic frontier implemented as queue.
  * Do not add twice the same state.
+ *
+ * Subclasses only provide the storage policy, through `push` and `pop`.
  */
-public abstract class Queue implements Frontier {
-    private final HashSet<State> contained_states = new HashSet<>();
-    protected final ArrayList<Node> _frontier = new ArrayList<>();
-
+public abstract class Queue extends DistinctQueue implements Frontier {
     public void add(@NotNull Node node) {
-        if (contained_states.contains(node.state)) {
-            return;
+        if (this.admit(node.state)) {
+            this.push(node);
+        }
+    }
+
+    @Nullable
+    public Node pick() {
+        final Node node = this.pop();
+
+        if (node != null) {
+            this.release(node.state);
         }
 
-        contained_states.add(node.state);
-        _frontier.add(node);
+        return node;
     }
 
     /**
-     * Subclasses MUST call this method before returning from 'pick'.
+     * Store a node whose state is not already in the frontier.
      *
-     * @param node: The node about to be removed.
+     * @param node: The node to be stored.
      */
-    protected void remove(@NotNull Node node) {
-        contained_states.remove(node.state);
-    }
+    protected abstract void push(@NotNull Node node);
+
+    /**
+     * Remove and return the next node, according to the policy of the queue.
+     *
+     * @return The next node or null if the queue is empty.
+     */
+    @Nullable
+    protected abstract Node pop();
 }
@@ -0,0 +1,33 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+
+/**
+ * Helpers for the circular buffers of the FIFO frontiers.
+ */
+final class Rings {
+
+    private Rings() {
+    }
+
+    /**
+     * Double the capacity of a full circular buffer, unrolling its content from index 0.
+     *
+     * @param buffer A full buffer, e.g. of nodes or of node handles.
+     * @param head   The index of its oldest element.
+     * @return The grown buffer, whose oldest element is at index 0.
+     */
+    @NotNull
+    static <A> A grow(@NotNull A buffer, int head) {
+        final int capacity = Array.getLength(buffer);
+        assert capacity << 1 > 0 : "FIFO capacity overflow.";
+
+        @SuppressWarnings("unchecked")  // An array of the same component type.
+        final A grown = (A) Array.newInstance(buffer.getClass().getComponentType(), capacity << 1);
+        System.arraycopy(buffer, head, grown, 0, capacity - head);
+        System.arraycopy(buffer, 0, grown, capacity - head, head);
+        return grown;
+    }
+}
@@ -0,0 +1,163 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.LongHashable;
+import problem_elements.State;
+
+import java.util.Arrays;
+
+/**
+ * A map from states to non negative integers, used by frontiers to keep track of their nodes.
+ *
+ * It is an open addressing (linear probing) hash table, so that values are never boxed.
+ * Hashes of the states are cached, because computing them may be expensive.
+ */
+class StateIndex {
+    /**
+     * Returned by `get` and `remove` when the state is not in the index.
+     */
+    static final int MISSING = -1;
+
+    /**
+     * The maximum load factor of the table, as the fraction `LOAD_NUM / LOAD_DEN`.
+     */
+    private static final int LOAD_NUM = 2, LOAD_DEN = 3;
+
+    private State[] keys;
+    private int[] hashes;
+    private int[] values;
+    private int size = 0;
+
+    StateIndex() {
+        this.allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new State[capacity];
+        this.hashes = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Spread the bits of the hash, since linear probing is sensitive to clustering.
+     * The 64-bit hash of `LongHashable` states is used directly, taking its high bits.
+     */
+    private static int hash(@NotNull State state) {
+        if (state instanceof LongHashable) {
+            return (int) ((((LongHashable) state).longHashCode() * 0x9E3779B97F4A7C15L) >>> 32);
+        }
+
+        int h = state.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int find(@NotNull State state, int hash) {
+        final int mask = this.keys.length - 1;
+
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            final State key = this.keys[i];
+            if (key == null || (this.hashes[i] == hash && key.equals(state))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * @param state A state.
+     * @return The value associated to the state or `MISSING`.
+     */
+    int get(@NotNull State state) {
+        final int i = this.find(state, hash(state));
+        return this.keys[i] != null ? this.values[i] : MISSING;
+    }
+
+    /**
+     * Associate a value to the state, replacing the previous one.
+     *
+     * @param state A state.
+     * @param value A value greater or equal to 0.
+     */
+    void put(@NotNull State state, int value) {
+        assert value >= 0;
+        final int hash = hash(state);
+        final int i = this.find(state, hash);
+
+        if (this.keys[i] == null) {
+            this.keys[i] = state;
+            this.hashes[i] = hash;
+            if (++this.size * LOAD_DEN > this.keys.length * LOAD_NUM) {
+                this.values[i] = value;
+                this.rehash(this.keys.length << 1);
+                return;
+            }
+        }
+
+        this.values[i] = value;
+    }
+
+    /**
+     * Remove the state from the index.
+     *
+     * @param state A state.
+     * @return The value that was associated to the state or `MISSING`.
+     */
+    int remove(@NotNull State state) {
+        final int mask = this.keys.length - 1;
+        int i = this.find(state, hash(state));
+        if (this.keys[i] == null) {
+            return MISSING;
+        }
+
+        final int value = this.values[i];
+        this.size--;
+
+        // Shift back the following entries of the cluster, so that no tombstone is needed.
+        for (int j = (i + 1) & mask; this.keys[j] != null; j = (j + 1) & mask) {
+            final int home = this.hashes[j] & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                this.keys[i] = this.keys[j];
+                this.hashes[i] = this.hashes[j];
+                this.values[i] = this.values[j];
+                i = j;
+            }
+        }
+
+        this.keys[i] = null;
+        return value;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Remove every state, keeping the allocated table.
+     */
+    void clear() {
+        Arrays.fill(this.keys, null);
+        this.size = 0;
+    }
+
+    private void rehash(int capacity) {
+        final State[] old_keys = this.keys;
+        final int[] old_hashes = this.hashes;
+        final int[] old_values = this.values;
+
+        this.allocate(capacity);
+        final int mask = capacity - 1;
+        for (int j = 0; j < old_keys.length; j++) {
+            if (old_keys[j] == null) {
+                continue;
+            }
+
+            int i = old_hashes[j] & mask;
+            while (this.keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            this.keys[i] = old_keys[j];
+            this.hashes[i] = old_hashes[j];
+            this.values[i] = old_values[j];
+        }
+    }
+}
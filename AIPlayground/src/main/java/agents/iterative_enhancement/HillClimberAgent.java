@@ -55,12 +55,15 @@ public class HillClimberAgent extends IterativeEnhancementAgent {
      * Build a new agent, starting from an instance of problem.
      *
      * @param problem The problem to be solved.
+     * @throws IllegalArgumentException If the problem can't enumerate the actions of its states.
      */
     public HillClimberAgent(@NotNull Problem problem) throws InvalidClassException {
         super(problem);
 
         if (!(problem instanceof Utility<?>)) {
             throw new InvalidClassException("The problem must implement the Utility interface.");
+        } else if (!problem.canEnumerateActions()) {
+            throw new IllegalArgumentException(String.format("The actions of %s can't be enumerated.", problem.name));
         }
     }
 
@@ -113,7 +116,7 @@ public class HillClimberAgent extends IterativeEnhancementAgent {
                 assert chosen_action != null;
                 current_state = best_state;
                 logger.debug("Performing action '{}' to next state ({}).",
-                        chosen_action.name, this.current_score);
+                        chosen_action.getName(), this.current_score);
             }
 
             this.steps++;
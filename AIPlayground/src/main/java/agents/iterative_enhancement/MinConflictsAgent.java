@@ -0,0 +1,281 @@
+package agents.iterative_enhancement;
+
+import exceptions.UnsolvableProblem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.State;
+import problems.NQueens;
+import problems.Problem;
+
+import java.io.InvalidClassException;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * An Agent solving the NQueens problem by the min-conflicts heuristic.
+ *
+ * The number of queens on each row, diagonal and anti-diagonal is kept in counters,
+ * so that the conflicts of a cell are known, and a queen is moved, in O(1).
+ * Queens are placed greedily on free rows, then a conflicting queen, sampled among the attacked ones,
+ * swaps its row with the queen, among a sample of queens, leaving the fewest attacks, until no queen is attacked.
+ * Swapping rows keeps a queen per row, so that only diagonals can conflict.
+ * Memory is linear in the number of queens.
+ */
+public class MinConflictsAgent extends IterativeEnhancementAgent {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * The maximum numbers of moves the agent is allowed to perform, after the initial placement.
+     */
+    public long maximum_steps = Long.MAX_VALUE;
+
+    /**
+     * The number of moves after which, if no solution was found, the queens are placed again.
+     * Small boards have few solutions, the search can wander on a plateau for long.
+     */
+    public long restart_steps;
+
+    /**
+     * The number of rows sampled when placing a queen, and of queens sampled when moving one.
+     */
+    public int candidates = 32;
+
+    /**
+     * The seed of the random choices.
+     */
+    public long seed = System.nanoTime();
+
+    private final int n;
+
+    /**
+     * The row of the queen in each column.
+     */
+    private int[] positions;
+
+    /**
+     * The number of queens on each row, diagonal (row + column)
+     * and anti-diagonal (row - column + n - 1).
+     */
+    private int[] rows, diagonals, anti_diagonals;
+
+    /**
+     * The number of pairs of queens attacking each other.
+     */
+    private long attacks;
+
+    /**
+     * Columns whose queen may be attacked: every attacking pair has at least a queen in here.
+     */
+    private int[] suspects;
+    private int suspects_size;
+    private boolean[] is_suspect;
+
+    private SplittableRandom random;
+
+    private long steps = 0;
+    private int restarts = 0;
+    private long initial_attacks = 0;
+    private long elapsed_time = 0;
+
+    /**
+     * Build a new agent, starting from an instance of problem.
+     *
+     * @param problem The problem to be solved.
+     */
+    public MinConflictsAgent(@NotNull Problem problem) throws InvalidClassException {
+        super(problem);
+
+        if (!(problem instanceof NQueens)) {
+            throw new InvalidClassException("The min-conflicts agent only solves the NQueens problem.");
+        }
+
+        this.n = ((NQueens) problem).n;
+        this.restart_steps = Math.max(1000, 2L * n);
+    }
+
+    @Override
+    public @NotNull State findSolution() throws UnsolvableProblem {
+        final long start = System.nanoTime();
+        this.random = new SplittableRandom(this.seed);
+        this.positions = new int[n];
+        this.rows = new int[n];
+        this.diagonals = new int[2 * n - 1];
+        this.anti_diagonals = new int[2 * n - 1];
+        this.suspects = new int[n];
+        this.is_suspect = new boolean[n];
+        this.steps = 0;
+        this.restarts = 0;
+
+        if (n == 2 || n == 3) {
+            throw new UnsolvableProblem(String.format("There are no solutions with %d queens.", n));
+        }
+
+        this.placeQueens();
+        this.initial_attacks = this.attacks;
+        logger.debug("Queens placed, {} attacks left.", this.attacks);
+
+        long moves = 0;
+        while (this.attacks > 0) {
+            if (moves++ == this.restart_steps) {
+                logger.debug("No solution found in {} moves, restarting.", this.restart_steps);
+                this.placeQueens();
+                this.restarts++;
+                moves = 0;
+                continue;
+            }
+
+            if (this.steps == this.maximum_steps) {
+                this.elapsed_time = System.nanoTime() - start;
+                throw new UnsolvableProblem(String.format(
+                        "No solution found in %d steps, %d attacks left.", this.steps, this.attacks));
+            }
+
+            final int column = this.sampleConflictingColumn();
+            int other = this.minConflictsSwap(column);
+            if (other == -1) {  // A local minimum: take a random step out of it.
+                do {
+                    other = this.random.nextInt(n);
+                } while (other == column);
+            }
+
+            this.swap(column, other);
+            this.suspect(other);
+
+            this.steps++;
+        }
+
+        this.elapsed_time = System.nanoTime() - start;
+        this.suspects = null;
+        this.is_suspect = null;
+        logger.debug("Solution found in {} steps.", this.steps);
+        return ((NQueens) this.problem).new NQueensState(this.positions);
+    }
+
+    /**
+     * Place the queens column by column, each on a free row, preferring rows without conflicts.
+     */
+    private void placeQueens() {
+        Arrays.fill(this.rows, 0);
+        Arrays.fill(this.diagonals, 0);
+        Arrays.fill(this.anti_diagonals, 0);
+        this.attacks = 0;
+
+        final int[] free_rows = new int[n];
+        for (int i = 0; i < n; i++) {
+            free_rows[i] = i;
+        }
+
+        for (int column = 0, free = n; column < n; column++, free--) {
+            int best = this.random.nextInt(free);
+            for (int i = 1; i < this.candidates && this.conflicts(column, free_rows[best]) > 0; i++) {
+                final int candidate = this.random.nextInt(free);
+                if (this.conflicts(column, free_rows[candidate]) < this.conflicts(column, free_rows[best])) {
+                    best = candidate;
+                }
+            }
+
+            this.place(column, free_rows[best]);
+            free_rows[best] = free_rows[free - 1];
+        }
+
+        Arrays.fill(this.is_suspect, false);
+        this.suspects_size = 0;
+        for (int column = 0; column < n; column++) {
+            this.suspect(column);
+        }
+    }
+
+    /**
+     * Sample the queens to swap rows with, keeping the one leaving the fewest attacks.
+     *
+     * @return The column of the chosen queen, or -1 if every sampled swap adds attacks.
+     */
+    private int minConflictsSwap(int column) {
+        int best = -1;
+        long best_attacks = this.attacks;
+
+        for (int i = 0; i < this.candidates; i++) {
+            final int other = this.random.nextInt(n);
+            if (other == column) {
+                continue;
+            }
+
+            this.swap(column, other);
+            if (this.attacks < best_attacks || (best == -1 && this.attacks == best_attacks)) {
+                best = other;
+                best_attacks = this.attacks;
+            }
+            this.swap(column, other);
+        }
+
+        return best;
+    }
+
+    /**
+     * @return A random column whose queen is attacked. There must be one.
+     */
+    private int sampleConflictingColumn() {
+        while (true) {
+            final int i = this.random.nextInt(this.suspects_size);
+            final int column = this.suspects[i];
+            if (this.isAttacked(column)) {
+                return column;
+            }
+
+            this.is_suspect[column] = false;
+            this.suspects[i] = this.suspects[--this.suspects_size];
+        }
+    }
+
+    private boolean isAttacked(int column) {
+        final int row = this.positions[column];
+        return this.rows[row] > 1 || this.diagonals[row + column] > 1 || this.anti_diagonals[row - column + n - 1] > 1;
+    }
+
+    /**
+     * Add the column to the suspects, if its queen is attacked and it is not already there.
+     * Since the moved queen stays a suspect while attacked, every attacking pair keeps a suspect.
+     */
+    private void suspect(int column) {
+        if (!this.is_suspect[column] && this.isAttacked(column)) {
+            this.is_suspect[column] = true;
+            this.suspects[this.suspects_size++] = column;
+        }
+    }
+
+    /**
+     * @return The number of queens attacking a queen placed in the cell (the queen of the column excluded).
+     */
+    private int conflicts(int column, int row) {
+        return this.rows[row] + this.diagonals[row + column] + this.anti_diagonals[row - column + n - 1];
+    }
+
+    private void place(int column, int row) {
+        this.attacks += this.rows[row]++ + this.diagonals[row + column]++ + this.anti_diagonals[row - column + n - 1]++;
+        this.positions[column] = row;
+    }
+
+    private void swap(int column, int other) {
+        final int row = this.positions[column], other_row = this.positions[other];
+        this.remove(column);
+        this.remove(other);
+        this.place(column, other_row);
+        this.place(other, row);
+    }
+
+    private void remove(int column) {
+        final int row = this.positions[column];
+        this.attacks -= --this.rows[row] + --this.diagonals[row + column] + --this.anti_diagonals[row - column + n - 1];
+    }
+
+    @Override
+    public @Nullable String statsToString() {
+        return String.format("Attacks after the initial placement: %d.\n", this.initial_attacks) +
+                String.format("Performed %d moves (%d restarts) in %d ms.\n",
+                        this.steps, this.restarts, this.elapsed_time / 1000000);
+    }
+}
@@ -0,0 +1,290 @@
+package csp;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An exact cover problem: select a set of rows covering each column exactly once.
+ *
+ * Solved by Knuth's Algorithm X with dancing links: the ones of the matrix are nodes of circular lists,
+ * linked horizontally along their row and vertically along their column, stored in parallel int arrays.
+ * Covering a column unlinks it, with the rows crossing it, and uncovering links them back in reverse order,
+ * so that the search allocates nothing. The column with the fewest rows is branched on first.
+ */
+public class ExactCover {
+
+    /**
+     * The root of the list of uncovered columns, whose headers are the nodes `1..columns`.
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * The number of columns.
+     */
+    public final int columns;
+
+    private int[] left, right, up, down, column, row;
+
+    /**
+     * The number of nodes in the list of each column.
+     */
+    private final int[] sizes;
+
+    /**
+     * The number of nodes, headers included.
+     */
+    private int nodes;
+
+    /**
+     * The first node of each row.
+     */
+    private int[] row_starts = new int[16];
+    private int rows = 0;
+
+    /**
+     * The rows selected before searching, in order.
+     */
+    private int[] selected = new int[16];
+    private int selected_size = 0;
+
+    /**
+     * Whether two selected rows cover the same column, so that there are no solutions.
+     */
+    private boolean contradiction = false;
+
+    /**
+     * The rows selected by the search, down to the current node.
+     */
+    private final int[] partial;
+
+    private @Nullable int[] solution = null;
+    private long solutions = 0, limit = 0;
+    private long search_nodes = 0, updates = 0;
+
+    /**
+     * Build an empty matrix.
+     *
+     * @param columns The number of columns, each to be covered exactly once.
+     */
+    public ExactCover(int columns) {
+        assert columns > 0;
+        this.columns = columns;
+        this.sizes = new int[columns + 1];
+        this.partial = new int[columns];
+        this.allocate(Math.max(16, 4 * (columns + 1)));
+
+        for (int c = 0; c <= columns; c++) {
+            this.left[c] = c == 0 ? columns : c - 1;
+            this.right[c] = c == columns ? 0 : c + 1;
+            this.up[c] = this.down[c] = this.column[c] = c;
+            this.row[c] = -1;
+        }
+
+        this.nodes = columns + 1;
+    }
+
+    private void allocate(int capacity) {
+        this.left = this.left == null ? new int[capacity] : Arrays.copyOf(this.left, capacity);
+        this.right = this.right == null ? new int[capacity] : Arrays.copyOf(this.right, capacity);
+        this.up = this.up == null ? new int[capacity] : Arrays.copyOf(this.up, capacity);
+        this.down = this.down == null ? new int[capacity] : Arrays.copyOf(this.down, capacity);
+        this.column = this.column == null ? new int[capacity] : Arrays.copyOf(this.column, capacity);
+        this.row = this.row == null ? new int[capacity] : Arrays.copyOf(this.row, capacity);
+    }
+
+    /**
+     * Add a row to the matrix.
+     *
+     * @param columns The distinct columns covered by the row, in `[0, columns)`.
+     * @return The index of the row, rows being numbered from 0 in order of addition.
+     */
+    public int addRow(@NotNull int... columns) {
+        assert columns.length > 0;
+        assert this.selected_size == 0;  // Selected rows would not be unlinked.
+
+        if (this.nodes + columns.length > this.left.length) {
+            this.allocate(Math.max(this.left.length << 1, this.nodes + columns.length));
+        }
+        if (this.rows == this.row_starts.length) {
+            this.row_starts = Arrays.copyOf(this.row_starts, this.rows << 1);
+        }
+
+        final int first = this.nodes;
+        for (int c : columns) {
+            assert c >= 0 && c < this.columns;
+            final int header = c + 1, node = this.nodes++;
+
+            this.column[node] = header;
+            this.row[node] = this.rows;
+            this.up[node] = this.up[header];
+            this.down[node] = header;
+            this.down[this.up[header]] = node;
+            this.up[header] = node;
+            this.sizes[header]++;
+
+            this.left[node] = node == first ? node : node - 1;
+            this.right[node] = first;
+            this.right[this.left[node]] = node;
+            this.left[first] = node;
+        }
+
+        this.row_starts[this.rows] = first;
+        return this.rows++;
+    }
+
+    /**
+     * Force a row in every solution, e.g. the clues of a puzzle. Rows can't be added afterwards.
+     *
+     * @param row The index of the row.
+     */
+    public void select(int row) {
+        assert row >= 0 && row < this.rows;
+        if (this.selected_size == this.selected.length) {
+            this.selected = Arrays.copyOf(this.selected, this.selected_size << 1);
+        }
+        this.selected[this.selected_size++] = row;
+
+        final int first = this.row_starts[row];
+        int node = first;
+        do {
+            if (!this.isUncovered(this.column[node])) {
+                this.contradiction = true;
+            } else {
+                this.cover(this.column[node]);
+            }
+            node = this.right[node];
+        } while (node != first);
+    }
+
+    private boolean isUncovered(int header) {
+        return this.right[this.left[header]] == header;
+    }
+
+    /**
+     * Find a solution.
+     *
+     * @return The indexes of the rows of a solution, selected ones first, or null if there is none.
+     */
+    public @Nullable int[] solve() {
+        return this.countSolutions(1) == 1 ? this.solution : null;
+    }
+
+    /**
+     * Count the solutions, stopping at a limit (e.g. 2 to check that a solution is unique).
+     * The matrix is left as it was, and can be searched again.
+     *
+     * @param limit The maximum number of solutions to be found.
+     * @return The number of solutions, up to `limit`.
+     */
+    public long countSolutions(long limit) {
+        assert limit > 0;
+        this.solution = null;
+        this.solutions = 0;
+        this.limit = limit;
+        this.search_nodes = 0;
+        this.updates = 0;
+
+        if (!this.contradiction) {
+            this.search(0);
+        }
+
+        return this.solutions;
+    }
+
+    /**
+     * @return The rows of the first solution found by the last search, selected ones first, or null.
+     */
+    public @Nullable int[] getSolution() {
+        return this.solution;
+    }
+
+    private void search(int depth) {
+        this.search_nodes++;
+
+        if (this.right[ROOT] == ROOT) {
+            if (this.solutions++ == 0) {
+                final int[] solution = Arrays.copyOf(this.selected, this.selected_size + depth);
+                System.arraycopy(this.partial, 0, solution, this.selected_size, depth);
+                this.solution = solution;
+            }
+            return;
+        }
+
+        // The column with the fewest rows left.
+        int chosen = this.right[ROOT];
+        for (int c = this.right[chosen]; c != ROOT && this.sizes[chosen] > 1; c = this.right[c]) {
+            if (this.sizes[c] < this.sizes[chosen]) {
+                chosen = c;
+            }
+        }
+
+        if (this.sizes[chosen] == 0) {
+            return;
+        }
+
+        this.cover(chosen);
+        for (int r = this.down[chosen]; r != chosen && this.solutions < this.limit; r = this.down[r]) {
+            this.partial[depth] = this.row[r];
+            for (int j = this.right[r]; j != r; j = this.right[j]) {
+                this.cover(this.column[j]);
+            }
+
+            this.search(depth + 1);
+
+            for (int j = this.left[r]; j != r; j = this.left[j]) {
+                this.uncover(this.column[j]);
+            }
+        }
+        this.uncover(chosen);
+    }
+
+    private void cover(int header) {
+        this.right[this.left[header]] = this.right[header];
+        this.left[this.right[header]] = this.left[header];
+
+        for (int i = this.down[header]; i != header; i = this.down[i]) {
+            for (int j = this.right[i]; j != i; j = this.right[j]) {
+                this.down[this.up[j]] = this.down[j];
+                this.up[this.down[j]] = this.up[j];
+                this.sizes[this.column[j]]--;
+                this.updates++;
+            }
+        }
+    }
+
+    private void uncover(int header) {
+        for (int i = this.up[header]; i != header; i = this.up[i]) {
+            for (int j = this.left[i]; j != i; j = this.left[j]) {
+                this.sizes[this.column[j]]++;
+                this.down[this.up[j]] = j;
+                this.up[this.down[j]] = j;
+            }
+        }
+
+        this.right[this.left[header]] = header;
+        this.left[this.right[header]] = header;
+    }
+
+    /**
+     * @return The number of rows of the matrix.
+     */
+    public int rows() {
+        return this.rows;
+    }
+
+    /**
+     * @return The number of search nodes visited by the last search.
+     */
+    public long getSearchNodes() {
+        return this.search_nodes;
+    }
+
+    public @NotNull String statsToString() {
+        return String.format("Exact cover: %d columns, %d rows, %d nodes (%d selected rows).\n",
+                this.columns, this.rows, this.nodes - this.columns - 1, this.selected_size) +
+                String.format("Search nodes: %d, link updates: %d, solutions: %d.\n",
+                        this.search_nodes, this.updates, this.solutions);
+    }
+}
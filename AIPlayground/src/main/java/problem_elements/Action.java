@@ -1,16 +1,17 @@
 package problem_elements;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * An action: agents perform actions to interact with the surrounding world.
  */
 public class Action {
     /**
-     * A human readable name for the action.
+     * A human readable name for the action, null when it is formatted on demand by `getName()`.
      */
-    @NotNull
-    public final String name;
+    @Nullable
+    private final String name;
 
     /**
      * A cost for performing the action.
@@ -37,4 +38,31 @@ public class Action {
         this.name = name;
         this.cost = 1;
     }
+
+    /**
+     * An action whose name is only built when needed: subclasses override `getName()`.
+     *
+     * @param cost A cost associated to the action.
+     */
+    protected Action(float cost) {
+        this.name = null;
+        this.cost = cost;
+    }
+
+    /**
+     * @return A human readable name for the action.
+     * @throws IllegalStateException If the action was built without a name, and this method is not overridden.
+     */
+    public @NotNull String getName() {
+        if (this.name == null) {
+            throw new IllegalStateException(this.getClass().getName() + " must override getName().");
+        }
+
+        return this.name;
+    }
+
+    @Override
+    public String toString() {
+        return this.getName();
+    }
 }
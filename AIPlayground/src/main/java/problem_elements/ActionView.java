@@ -0,0 +1,75 @@
+package problem_elements;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A view over the valid actions of a state, the actions of the problem being identified by int codes in `[0, size)`.
+ *
+ * Nothing is copied: the codes are checked while iterating, and the actions returned are usually
+ * shared by every state of the problem. The view follows the state: when a `MutableState` is changed in place
+ * while iterating, each applied action must be undone before moving to the next action.
+ */
+public abstract class ActionView implements Iterable<Action> {
+
+    /**
+     * The number of codes.
+     */
+    private final int size;
+
+    /**
+     * @param size The number of codes.
+     */
+    protected ActionView(int size) {
+        assert size >= 0;
+        this.size = size;
+    }
+
+    /**
+     * @param code The code of an action.
+     * @return True if the action can be performed from the state.
+     */
+    protected abstract boolean isValid(int code);
+
+    /**
+     * @param code The code of a valid action.
+     * @return The action.
+     */
+    protected abstract @NotNull Action action(int code);
+
+    /**
+     * @return The first valid code, starting from `code`, or `size`.
+     */
+    private int nextValid(int code) {
+        while (code < this.size && !this.isValid(code)) {
+            code++;
+        }
+
+        return code;
+    }
+
+    @Override
+    public @NotNull Iterator<Action> iterator() {
+        return new Iterator<Action>() {
+            private int next = nextValid(0);
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public Action next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final Action action = action(this.next);
+                this.next = nextValid(this.next + 1);
+                return action;
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package problem_elements;
+
+/**
+ * States providing a 64-bit hash.
+ *
+ * Equal states must have the same hash, while distinct states collide with negligible probability:
+ * agents can then use the hash as a compact key, e.g. in a transposition table, where a rare collision is tolerated.
+ */
+public interface LongHashable {
+
+    /**
+     * @return The 64-bit hash of the state.
+     */
+    long longHashCode();
+}
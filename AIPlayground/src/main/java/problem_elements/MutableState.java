@@ -0,0 +1,35 @@
+package problem_elements;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * States may implement this interface, in order to be explored in place:
+ * a single working copy is modified by `apply` and restored by `undo`, instead of allocating a state per move.
+ *
+ * The iterable returned by `getActions` may be a live view of the state, as `ActionView` is:
+ * while iterating it, each applied action must be undone before moving to the next action.
+ */
+public interface MutableState {
+
+    /**
+     * @return A new copy of this state, that can be modified without affecting this one.
+     */
+    @NotNull
+    State copy();
+
+    /**
+     * Perform an action, modifying this state.
+     *
+     * @param action An action available from this state.
+     * @return A token, that must be given back to `undo`.
+     */
+    int apply(@NotNull Action action);
+
+    /**
+     * Revert an action, performed by `apply`.
+     *
+     * @param action The last applied action.
+     * @param token The token returned by `apply`.
+     */
+    void undo(@NotNull Action action, int token);
+}
@@ -37,6 +37,11 @@ public class Node implements Comparable<Node> {
      */
     public float weight;
 
+    /**
+     * The heuristic value of the state, if an agent has computed it.
+     */
+    public float heuristic_value = Float.NaN;
+
     /**
      * Build a node, given a state, a parent node and an action (leading here from the parent).
      *
@@ -0,0 +1,156 @@
+package problem_elements;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A compact store of search nodes.
+ *
+ * Instead of a `Node` object per node, each field is kept in a parallel array, and nodes are addressed by int handles.
+ * Parents are handles too, and actions are indexes in a table of the actions seen so far.
+ * This saves object headers and references, and keeps the nodes of the search contiguous in memory.
+ */
+public class NodeArena {
+    /**
+     * The handle of the missing parent of the root.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The initial capacity of the arena.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private State[] states = new State[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] actions = new int[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private float[] path_costs = new float[INITIAL_CAPACITY];
+
+    /**
+     * The actions seen so far, and their indexes.
+     */
+    private final ArrayList<Action> action_table = new ArrayList<>();
+    private final IdentityHashMap<Action, Integer> action_indexes = new IdentityHashMap<>();
+
+    /**
+     * The number of nodes in the arena.
+     */
+    private int size = 0;
+
+    /**
+     * Add a root node.
+     *
+     * @param state The state of the node.
+     * @return The handle of the new node.
+     */
+    public int root(@NotNull State state) {
+        return this.allocate(state, NONE, NONE, 0, 0);
+    }
+
+    /**
+     * Add a node, given a state, a parent node and an action (leading here from the parent).
+     *
+     * @param state The state of the node.
+     * @param parent The handle of the parent node.
+     * @param arriving_action An action leading from the parent to this node.
+     * @return The handle of the new node.
+     */
+    public int child(@NotNull State state, int parent, @NotNull Action arriving_action) {
+        assert parent >= 0 && parent < this.size;
+
+        Integer action = this.action_indexes.get(arriving_action);
+        if (action == null) {
+            action = this.action_table.size();
+            this.action_table.add(arriving_action);
+            this.action_indexes.put(arriving_action, action);
+        }
+
+        return this.allocate(state, parent, action,
+                this.depths[parent] + 1, this.path_costs[parent] + arriving_action.cost);
+    }
+
+    private int allocate(@NotNull State state, int parent, int action, int depth, float path_cost) {
+        if (this.size == this.states.length) {
+            final int capacity = this.size << 1;
+            this.states = Arrays.copyOf(this.states, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.actions = Arrays.copyOf(this.actions, capacity);
+            this.depths = Arrays.copyOf(this.depths, capacity);
+            this.path_costs = Arrays.copyOf(this.path_costs, capacity);
+        }
+
+        final int node = this.size++;
+        this.states[node] = state;
+        this.parents[node] = parent;
+        this.actions[node] = action;
+        this.depths[node] = depth;
+        this.path_costs[node] = path_cost;
+        return node;
+    }
+
+    @NotNull
+    public State state(int node) {
+        return this.states[node];
+    }
+
+    /**
+     * @return The handle of the parent or `NONE`.
+     */
+    public int parent(int node) {
+        return this.parents[node];
+    }
+
+    @Nullable
+    public Action arrivingAction(int node) {
+        final int action = this.actions[node];
+        return action != NONE ? this.action_table.get(action) : null;
+    }
+
+    public int depth(int node) {
+        return this.depths[node];
+    }
+
+    public float pathCost(int node) {
+        return this.path_costs[node];
+    }
+
+    /**
+     * Return the sequence of actions leading from the root to the node.
+     *
+     * @param node The handle of a node.
+     * @return A sequence of actions.
+     */
+    @NotNull
+    public List<Action> pathTo(int node) {
+        final Action[] path = new Action[this.depths[node]];
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = this.action_table.get(this.actions[node]);
+            node = this.parents[node];
+        }
+
+        assert node != NONE && this.parents[node] == NONE;
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    /**
+     * @return The number of nodes in the arena.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Remove every node, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(this.states, 0, this.size, null);
+        this.size = 0;
+    }
+}
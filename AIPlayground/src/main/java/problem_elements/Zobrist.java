@@ -0,0 +1,55 @@
+package problem_elements;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing of states made of cells, each one holding a small value.
+ *
+ * A random 64-bit key is drawn for each pair (cell, value), and the hash of a state is the XOR of the keys of its cells.
+ * Changing the value of a cell then updates the hash in O(1), XOR-ing out the old key and XOR-ing in the new one.
+ * The value 0 has a key of 0, so that empty cells cost nothing.
+ */
+public class Zobrist {
+    /**
+     * Keys are drawn from a fixed seed, so that hashes are the same across runs.
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final long[] keys;
+    private final int values;
+
+    /**
+     * @param cells  The number of cells.
+     * @param values The number of values of each cell, from 0 to `values - 1`.
+     */
+    public Zobrist(int cells, int values) {
+        this.values = values;
+        this.keys = new long[cells * values];
+
+        final SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < this.keys.length; i++) {
+            this.keys[i] = i % values != 0 ? random.nextLong() : 0;
+        }
+    }
+
+    /**
+     * @return The key of a value in a cell.
+     */
+    public long key(int cell, int value) {
+        return this.keys[cell * this.values + value];
+    }
+
+    /**
+     * @return The hash update for a cell changing from a value to another.
+     */
+    public long change(int cell, int from, int to) {
+        return this.key(cell, from) ^ this.key(cell, to);
+    }
+
+    /**
+     * Fold a 64-bit hash into a 32-bit one, e.g. for `hashCode()`.
+     */
+    public static int fold(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,269 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.State;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded cache of the values of an heuristic.
+ *
+ * The cache is split in segments, each one guarded by its own lock, so it can be shared by the parallel agents.
+ * Values are computed outside of the locks: two threads missing the same state may both compute it.
+ * When a segment is full, a victim is chosen by a CLOCK sweep: recently used entries get a second chance.
+ * With the `TINY_LFU` policy, a new state replaces the victim only if it was requested more frequently,
+ * according to an approximate (and periodically aged) count of the requests of each state.
+ *
+ * States are kept as keys, so they must not be modified once evaluated.
+ */
+public class CachedHeuristic<T extends State> implements Heuristic<T> {
+
+    /**
+     * How entries are evicted once the cache is full.
+     */
+    public enum Policy {
+        /**
+         * Always admit new states, evicting the first entry not used since the last sweep.
+         */
+        CLOCK,
+
+        /**
+         * Admit new states only if more frequent than the victim chosen by CLOCK.
+         */
+        TINY_LFU
+    }
+
+    /**
+     * The maximum number of segments, a power of 2.
+     */
+    private static final int SEGMENTS = 16;
+
+    @NotNull
+    private final Heuristic<T> heuristic;
+
+    @NotNull
+    public final Policy policy;
+
+    /**
+     * The segments, as many as the capacity allows, up to `SEGMENTS`.
+     */
+    @NotNull
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Wrap an heuristic.
+     *
+     * @param heuristic The heuristic whose values are cached.
+     * @param capacity  The maximum number of cached values.
+     * @param policy    The eviction policy.
+     */
+    public CachedHeuristic(@NotNull Heuristic<T> heuristic, int capacity, @NotNull Policy policy) {
+        assert capacity > 0;
+        this.heuristic = heuristic;
+        this.policy = policy;
+
+        // Every segment holds at least an entry: small caches have fewer segments, so that they hold `capacity` entries.
+        this.segments = new Segment[Math.min(SEGMENTS, Integer.highestOneBit(capacity))];
+        for (int i = 0; i < this.segments.length; i++) {
+            final int segment_capacity = capacity / this.segments.length + (i < capacity % this.segments.length ? 1 : 0);
+            this.segments[i] = new Segment(segment_capacity, policy == Policy.TINY_LFU);
+        }
+    }
+
+    @Override
+    public float getHeuristicValue(@NotNull T state) {
+        final int hash = spread(state.hashCode());
+        final Segment segment = this.segments[hash & (this.segments.length - 1)];
+
+        final float cached = segment.get(state, hash);
+        if (!Float.isNaN(cached)) {
+            this.hits.increment();
+            return cached;
+        }
+
+        this.misses.increment();
+        final float value = this.heuristic.getHeuristicValue(state);
+        segment.put(state, hash, value);
+        return value;
+    }
+
+    /**
+     * Mix the bits of an hash code, since segments and sketch counters are picked by its low and high bits.
+     */
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The fraction of requests served by the cache.
+     */
+    public double getHitRate() {
+        final long hits = this.getHits();
+        final long requests = hits + this.getMisses();
+        return requests != 0 ? (double) hits / requests : 0;
+    }
+
+    /**
+     * @return The number of cached values.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+
+        return size;
+    }
+
+    public @NotNull String statsToString() {
+        long evictions = 0, rejections = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+                rejections += segment.rejections;
+            }
+        }
+
+        return String.format("Heuristic cache (%s): %d entries.\n", this.policy, this.size()) +
+                String.format("Hits: %d, misses: %d, hit rate: %.2f%%.\n",
+                        this.getHits(), this.getMisses(), this.getHitRate() * 100) +
+                String.format("Evictions: %d, rejected admissions: %d.\n",
+                        evictions, rejections);
+    }
+
+    /**
+     * A part of the cache, with a fixed number of slots.
+     */
+    private static final class Segment {
+        private final HashMap<State, Integer> slots;
+        private final State[] keys;
+        private final int[] hashes;
+        private final float[] values;
+        private final boolean[] referenced;
+
+        private int size = 0;
+        private int hand = 0;
+        private long evictions = 0;
+        private long rejections = 0;
+
+        /**
+         * A count-min sketch of the request frequencies, with 4 rows of saturating 4 bit counters.
+         * Null for the CLOCK policy.
+         */
+        private final byte[] sketch;
+        private final int sketch_mask;
+        private int samples = 0;
+
+        Segment(int capacity, boolean frequency) {
+            this.slots = new HashMap<>(capacity * 2);
+            this.keys = new State[capacity];
+            this.hashes = new int[capacity];
+            this.values = new float[capacity];
+            this.referenced = new boolean[capacity];
+
+            final int width = Integer.highestOneBit(Math.max(capacity, 8)) << 1;
+            this.sketch = frequency ? new byte[width * 4] : null;
+            this.sketch_mask = width - 1;
+        }
+
+        synchronized float get(@NotNull State state, int hash) {
+            if (this.sketch != null) {
+                this.recordRequest(hash);
+            }
+
+            final Integer slot = this.slots.get(state);
+            if (slot == null) {
+                return Float.NaN;
+            }
+
+            this.referenced[slot] = true;
+            return this.values[slot];
+        }
+
+        synchronized void put(@NotNull State state, int hash, float value) {
+            if (this.slots.containsKey(state)) {  // Another thread was faster.
+                return;
+            }
+
+            final int slot;
+            if (this.size < this.keys.length) {
+                slot = this.size++;
+            } else {
+                slot = this.victim();
+                if (this.sketch != null && this.frequency(hash) <= this.frequency(this.hashes[slot])) {
+                    this.rejections++;
+                    return;
+                }
+
+                this.slots.remove(this.keys[slot]);
+                this.evictions++;
+            }
+
+            this.slots.put(state, slot);
+            this.keys[slot] = state;
+            this.hashes[slot] = hash;
+            this.values[slot] = value;
+            this.referenced[slot] = false;
+        }
+
+        /**
+         * Sweep the slots, clearing the reference bits, until an entry not referenced is found.
+         */
+        private int victim() {
+            while (this.referenced[this.hand]) {
+                this.referenced[this.hand] = false;
+                this.hand = (this.hand + 1) % this.keys.length;
+            }
+
+            final int victim = this.hand;
+            this.hand = (this.hand + 1) % this.keys.length;
+            return victim;
+        }
+
+        private void recordRequest(int hash) {
+            for (int row = 0; row < 4; row++) {
+                final int i = this.counter(hash, row);
+                if (this.sketch[i] < 15) {
+                    this.sketch[i]++;
+                }
+            }
+
+            // Age the counts, so that old popularity fades.
+            if (++this.samples == this.sketch.length * 2) {
+                for (int i = 0; i < this.sketch.length; i++) {
+                    this.sketch[i] >>= 1;
+                }
+                this.samples = 0;
+            }
+        }
+
+        private int frequency(int hash) {
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < 4; row++) {
+                frequency = Math.min(frequency, this.sketch[this.counter(hash, row)]);
+            }
+
+            return frequency;
+        }
+
+        private int counter(int hash, int row) {
+            final int h = Integer.rotateLeft(hash * (0x27D4EB2F + (row << 1)), row << 3);
+            return (row * (this.sketch_mask + 1)) + ((h ^ (h >>> 15)) & this.sketch_mask);
+        }
+    }
+}
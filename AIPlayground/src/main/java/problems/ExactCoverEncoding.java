@@ -0,0 +1,31 @@
+package problems;
+
+import csp.ExactCover;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import problem_elements.State;
+
+/**
+ * An exact cover encoding for the problem.
+ */
+public interface ExactCoverEncoding {
+
+    /**
+     * Allow problems to return an exact cover representation.
+     *
+     * @param initial_state A possibly null initial state.
+     * @return An exact cover representation.
+     */
+    @NotNull
+    ExactCover asExactCover(@Nullable State initial_state);
+
+    /**
+     * Allow problems to return a state from the rows they
+     * selected for their exact cover representation.
+     *
+     * @param rows The rows of a solution.
+     * @return A state.
+     */
+    @NotNull
+    State stateFromExactCover(@NotNull int[] rows);
+}
@@ -0,0 +1,23 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+
+/**
+ * An heuristic that can be updated from the value of the parent state.
+ * When an action only changes a small part of the state, this is much cheaper than evaluating it from scratch.
+ */
+public interface IncrementalHeuristic<T extends State> extends Heuristic<T> {
+
+    /**
+     * Return the heuristic value of a state, given the value of its parent.
+     * It must return the same value as `getHeuristicValue(state)`.
+     *
+     * @param state The state for which you're calculating the value.
+     * @param arriving_action The action leading from the parent to the state.
+     * @param parent_value The heuristic value of the parent.
+     * @return A value greater or equal to 0.
+     */
+    float getHeuristicValue(@NotNull T state, @NotNull Action arriving_action, float parent_value);
+}
@@ -0,0 +1,156 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generate instances of a `KSquaredPuzzle`, e.g. to build benchmark corpora.
+ *
+ * Instances are either uniformly drawn among the solvable ones, or reached by a random walk from the goal.
+ * The same seed always generates the same instances.
+ */
+public class KSquaredGenerator {
+    /**
+     * Identify the files holding instances.
+     */
+    private static final int MAGIC = 0x4B535131;  // "KSQ1"
+
+    /**
+     * The size of the buffer of the streams.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @NotNull
+    private final KSquaredPuzzle puzzle;
+
+    @NotNull
+    private final SplittableRandom random;
+
+    /**
+     * @param puzzle The puzzle.
+     * @param seed The seed of the random generator.
+     */
+    public KSquaredGenerator(@NotNull KSquaredPuzzle puzzle, long seed) {
+        this.puzzle = puzzle;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Draw a solvable instance, uniformly.
+     * A random permutation is shuffled, and its parity is fixed swapping two tiles, if needed.
+     *
+     * @return The instance.
+     */
+    public @NotNull KSquaredPuzzle.KSquaredState nextSolvable() {
+        return puzzle.new KSquaredState(this.nextSolvableCells());
+    }
+
+    private @NotNull int[] nextSolvableCells() {
+        final int[] cells = new int[puzzle.k * puzzle.k];
+        for (int i = 0; i < cells.length; i++) {  // Fisher-Yates shuffle, "inside-out".
+            final int j = this.random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+
+        puzzle.makeSolvable(cells);
+        return cells;
+    }
+
+    /**
+     * Walk randomly from the goal, never undoing the last move.
+     * The instance is at most `depth` moves from the goal, its optimal solution may be shorter.
+     *
+     * @param depth The number of moves.
+     * @return The instance.
+     */
+    public @NotNull KSquaredPuzzle.KSquaredState nextRandomWalk(int depth) {
+        assert depth >= 0;
+        final KSquaredPuzzle.KSquaredState state =
+                (KSquaredPuzzle.KSquaredState) puzzle.getGoalStates().iterator().next().copy();
+
+        Action last = null;
+        for (int i = 0; i < depth; i++) {
+            final List<Action> actions = state.getActions();
+            if (last != null && actions.size() > 1) {
+                actions.remove(puzzle.getInverseAction(last));
+            }
+
+            last = actions.get(this.random.nextInt(actions.size()));
+            state.apply(last);
+        }
+
+        return state;
+    }
+
+    /**
+     * Stream instances to a file: a header, then `k * k` bytes per instance.
+     *
+     * @param file The destination.
+     * @param count The number of instances.
+     * @param depth The depth of the random walks, or a negative value to draw uniform solvable instances.
+     */
+    public void write(@NotNull Path file, long count, int depth) throws IOException {
+        assert puzzle.k * puzzle.k <= 256;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(puzzle.k);
+            out.writeLong(count);
+
+            for (long i = 0; i < count; i++) {
+                final int[] cells = depth < 0 ? this.nextSolvableCells() : this.nextRandomWalk(depth).puzzle;
+                for (int cell : cells) {
+                    out.write(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream the instances of a file, written by `write`.
+     *
+     * @param puzzle The puzzle.
+     * @param file The source.
+     * @param consumer Called on each instance.
+     * @throws IOException If the file can not be read, or it does not hold instances of this puzzle.
+     */
+    public static void read(@NotNull KSquaredPuzzle puzzle, @NotNull Path file,
+                            @NotNull Consumer<KSquaredPuzzle.KSquaredState> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a file of instances: " + file + ".");
+            }
+
+            final int k = in.readInt();
+            if (k != puzzle.k) {
+                throw new IOException(String.format("The instances are for k = %d, not %d.", k, puzzle.k));
+            }
+
+            final long count = in.readLong();
+            final byte[] buffer = new byte[k * k];
+            final int[] cells = new int[k * k];
+            for (long i = 0; i < count; i++) {
+                in.readFully(buffer);
+                for (int j = 0; j < cells.length; j++) {
+                    cells[j] = buffer[j] & 0xFF;
+                }
+
+                consumer.accept(puzzle.new KSquaredState(cells));
+            }
+        }
+    }
+}
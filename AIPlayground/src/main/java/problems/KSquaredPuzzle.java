@@ -1,13 +1,21 @@
 package problems;
 
 import problem_elements.Action;
+import problem_elements.LongHashable;
+import problem_elements.MutableState;
 import problem_elements.State;
+import problem_elements.Zobrist;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.stream.IntStream;
 
-public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.KSquaredState> {
+public class KSquaredPuzzle extends Problem implements
+        IncrementalHeuristic<KSquaredPuzzle.KSquaredState>,
+        Reversible<KSquaredPuzzle.KSquaredState>,
+        LongEncoding<KSquaredPuzzle.KSquaredState>
+{
     /**
      * The dimension of the puzzle.
      */
@@ -33,23 +41,45 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
      */
     public final static Action RIGHT = new Action("Right");
 
+    /**
+     * Every action, in the order used by the packed encoding.
+     */
+    private final static Action[] PACKED_ACTIONS = {UP, DOWN, LEFT, RIGHT};
+
+    /**
+     * The keys hashing the states of this puzzle.
+     */
+    private final Zobrist zobrist;
+
     /**
      * For performance, keep a fixed reference to the only goal state fot this puzzle.
      */
     private final KSquaredState goal;
 
+    /**
+     * The goal state, packed. Only meaningful if the puzzle is long encodable.
+     */
+    private final long packed_goal;
+
     /**
      * Allow to specify if generated random instances have to be solvable.
      */
     public boolean solvable_only = true;
 
+    /**
+     * If set, the heuristic value is taken from these pattern databases instead of the Manhattan distance.
+     */
+    public @Nullable PatternDatabase pattern_database;
+
     public KSquaredPuzzle(@NotNull String name, int k) {
         super(name);
 
         assert k > 0;
         this.k = k;
 
+        this.zobrist = new Zobrist(k * k, k * k);
         this.goal = new KSquaredState(false);
+        this.packed_goal = this.isLongEncodable() ? this.encode(this.goal) : 0;
     }
 
     @Override
@@ -57,16 +87,20 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
         return this.goal.equals(state);
     }
 
+    /**
+     * Solvable instances are built directly, fixing the parity of a random permutation.
+     */
     @Override
     public @NotNull State buildRandomState() {
         assert this.k > 0;
 
-        KSquaredState state = new KSquaredState(true);
-        while (solvable_only & !this.isSolvable(state)) {
-            state = new KSquaredState(true);
+        if (!this.solvable_only) {
+            return new KSquaredState(true);
         }
 
-        return state;
+        final int[] cells = new KSquaredState(true).puzzle;
+        this.makeSolvable(cells);
+        return new KSquaredState(cells);
     }
 
     /**
@@ -76,11 +110,11 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
      * @param current_position The current position of the value.
      * @return A value greater or equal to 0.
      */
-    private int manhattan(int value, int current_position) {
+    int manhattan(int value, int current_position) {
         assert value >= 0;
         if (value == 0) value = k * k;
-        final int delta = Math.abs((value - 1 - current_position));
-        return (delta / k) + (delta % k);
+        final int goal_position = value - 1;
+        return Math.abs(goal_position / k - current_position / k) + Math.abs(goal_position % k - current_position % k);
     }
 
     /**
@@ -90,39 +124,226 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
      * @return True if the state can be solved.
      */
     public boolean isSolvable(@NotNull KSquaredState state) {
-        final int[] standard_order = this.goal.puzzle.clone();
-        final int[] permutation = state.puzzle.clone();
-
-        standard_order[standard_order.length - 1] = k * k;
+        return this.isSolvable(state.puzzle);
+    }
 
+    /**
+     * A puzzle is solvable if the number of inversions (counting 'void' as `k * k`)
+     * has the same parity as the distance of 'void' from its goal position.
+     */
+    private boolean isSolvable(@NotNull int[] cells) {
         int zero_index = -1;
-        for (int i = 0; i < permutation.length; i++) {
-            if (permutation[i] == 0) {
-                permutation[i] = k * k;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == 0) {
                 zero_index = i;
             }
         }
 
-        int parity = 0;
-        for (int i = 0; i < standard_order.length; i++) {
-            for (int j = 0; j < standard_order.length; j++) {
-                if (standard_order[i] < standard_order[j] && permutation[i] > permutation[j]) {
-                    parity++;
-                }
+        return (inversions(cells) + manhattan(0, zero_index)) % 2 == 0;
+    }
+
+    /**
+     * Count the inversions of the puzzle, 'void' being counted as `k * k`, in O(k^2 log k) with a Fenwick tree.
+     *
+     * @param cells The cells of the puzzle.
+     * @return The number of pairs of cells whose values are out of order.
+     */
+    long inversions(@NotNull int[] cells) {
+        final int n = cells.length;
+        final int[] tree = new int[n + 1];  // How many of the values seen so far fall in each range.
+        long inversions = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            final int value = cells[i] != 0 ? cells[i] : n;
+
+            for (int j = value - 1; j > 0; j -= j & -j) {  // Smaller values to the right.
+                inversions += tree[j];
+            }
+            for (int j = value; j <= n; j += j & -j) {
+                tree[j]++;
             }
         }
 
-        return (parity + manhattan(0, zero_index)) % 2 == 0;
+        return inversions;
+    }
+
+    /**
+     * Make a puzzle solvable, swapping two tiles if needed.
+     * Swapping two tiles flips the parity, so this maps half of the permutations onto the other half.
+     *
+     * @param cells The cells of the puzzle, modified in place.
+     */
+    void makeSolvable(@NotNull int[] cells) {
+        if (!this.isSolvable(cells)) {
+            assert cells.length >= 3;
+            final int first = cells[0] != 0 ? 0 : 2;
+            final int second = cells[1] != 0 ? 1 : 2;
+
+            final int swap = cells[first];
+            cells[first] = cells[second];
+            cells[second] = swap;
+        }
+
+        assert this.isSolvable(cells);
     }
 
     @Override
     public float getHeuristicValue(@NotNull KSquaredState state) {
-        return IntStream.range(0, state.puzzle.length)
-                .filter(i -> state.puzzle[i] != 0)
-                .map(i -> manhattan(state.puzzle[i], i)).sum();
+        if (this.pattern_database != null) {
+            return this.pattern_database.getHeuristicValue(state);
+        }
+
+        int value = 0;
+        for (int i = 0; i < state.puzzle.length; i++) {
+            if (state.puzzle[i] != 0) {
+                value += manhattan(state.puzzle[i], i);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * A move only changes the distance of the tile swapped with 'void'.
+     * Pattern databases are evaluated from scratch.
+     */
+    @Override
+    public float getHeuristicValue(@NotNull KSquaredState state, @NotNull Action arriving_action, float parent_value) {
+        if (this.pattern_database != null) {
+            return this.pattern_database.getHeuristicValue(state);
+        }
+
+        final int tile_position = state.empty_i - this.offset(arriving_action);  // 'void' was here.
+        final int tile = state.puzzle[tile_position];
+
+        return parent_value - manhattan(tile, state.empty_i) + manhattan(tile, tile_position);
+    }
+
+    /**
+     * Return how much an action moves 'void' in the 1D puzzle.
+     */
+    private int offset(@NotNull Action action) {
+        if (action == UP) {
+            return -k;
+        } else if (action == DOWN) {
+            return k;
+        } else if (action == LEFT) {
+            return -1;
+        }
+
+        assert action == RIGHT;
+        return 1;
     }
 
-    public class KSquaredState extends State {
+    @Override
+    public @NotNull Iterable<KSquaredState> getGoalStates() {
+        return Collections.singletonList(this.goal);
+    }
+
+    @Override
+    public @NotNull Action getInverseAction(@NotNull Action action) {
+        if (action == UP) {
+            return DOWN;
+        } else if (action == DOWN) {
+            return UP;
+        } else if (action == LEFT) {
+            return RIGHT;
+        }
+
+        assert action == RIGHT;
+        return LEFT;
+    }
+
+    /**
+     * Puzzles up to 4x4 are packed with 4 bits per cell, cell `i` being stored at bits `[4i, 4i + 4)`.
+     */
+    @Override
+    public boolean isLongEncodable() {
+        return k <= 4;
+    }
+
+    @Override
+    public long encode(@NotNull KSquaredState state) {
+        assert this.isLongEncodable();
+
+        long code = 0;
+        for (int i = 0; i < state.puzzle.length; i++) {
+            code |= (long) state.puzzle[i] << (i << 2);
+        }
+
+        return code;
+    }
+
+    @Override
+    public @NotNull KSquaredState decode(long code) {
+        final int[] puzzle = new int[k * k];
+        for (int i = 0; i < puzzle.length; i++) {
+            puzzle[i] = (int) (code >>> (i << 2)) & 0xF;
+        }
+
+        return new KSquaredState(puzzle);
+    }
+
+    @Override
+    public @NotNull Action[] getPackedActions() {
+        return PACKED_ACTIONS.clone();
+    }
+
+    @Override
+    public int getMaxSuccessors() {
+        return PACKED_ACTIONS.length;
+    }
+
+    /**
+     * Return the cell holding 'void' in a packed puzzle.
+     * Cells beyond `k * k` are 0 as well, but they come after every real cell.
+     */
+    static int packedEmpty(long code) {
+        // The lowest flagged nibble is the lowest one equal to 0.
+        final long zeros = (code - 0x1111111111111111L) & ~code & 0x8888888888888888L;
+        return Long.numberOfTrailingZeros(zeros) >>> 2;
+    }
+
+    @Override
+    public int packedSuccessors(long code, @NotNull long[] children, @NotNull int[] actions) {
+        final int empty = packedEmpty(code);
+        final int row = empty / k, column = empty % k;
+        int count = 0;
+
+        if (row != 0) {
+            children[count] = packedMove(code, empty, empty - k);
+            actions[count++] = 0;
+        }
+        if (row != k - 1) {
+            children[count] = packedMove(code, empty, empty + k);
+            actions[count++] = 1;
+        }
+        if (column != 0) {
+            children[count] = packedMove(code, empty, empty - 1);
+            actions[count++] = 2;
+        }
+        if (column != k - 1) {
+            children[count] = packedMove(code, empty, empty + 1);
+            actions[count++] = 3;
+        }
+
+        return count;
+    }
+
+    /**
+     * Move the tile in cell `from` to the empty cell.
+     */
+    static long packedMove(long code, int empty, int from) {
+        final long tile = (code >>> (from << 2)) & 0xF;
+        return code - (tile << (from << 2)) + (tile << (empty << 2));
+    }
+
+    @Override
+    public boolean isPackedGoal(long code) {
+        return code == this.packed_goal;
+    }
+
+    public class KSquaredState extends State implements MutableState, LongHashable {
         /**
          * Keep track of the puzzle.
          * For performance and convenience, represent it as a 1D array.
@@ -137,6 +358,11 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
          */
         private int empty_i = -1;
 
+        /**
+         * The Zobrist hash of the puzzle, kept up to date by each move.
+         */
+        private long hash = 0;
+
         /**
          * Build a new puzzle.
          *
@@ -161,6 +387,24 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
                 if (numbers[i] == 0) {
                     empty_i = i;
                 }
+                this.hash ^= zobrist.key(i, numbers[i]);
+            }
+        }
+
+        /**
+         * Build a puzzle from its cells.
+         *
+         * @param puzzle The cells of the puzzle, as a 1D array.
+         */
+        public KSquaredState(@NotNull int[] puzzle) {
+            assert puzzle.length == k * k;
+            this.puzzle = puzzle.clone();
+
+            for (int i = 0; i < puzzle.length; i++) {
+                if (puzzle[i] == 0) {
+                    empty_i = i;
+                }
+                this.hash ^= zobrist.key(i, puzzle[i]);
             }
         }
 
@@ -176,25 +420,28 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
 
             this.empty_i = empty_i;
             this.puzzle = puzzle.clone();  // You can use 'clone()' as long as 'puzzle' is a 1D int array.
+            for (int i = 0; i < puzzle.length; i++) {
+                this.hash ^= zobrist.key(i, puzzle[i]);
+            }
 
             assert this.getActions().contains(action);
-            if (action == UP) {
-                this.puzzle[this.empty_i] = puzzle[empty_i - k];
-                this.puzzle[this.empty_i - k] = 0;
-                this.empty_i -= k;
-            } else if (action == DOWN) {
-                this.puzzle[this.empty_i] = puzzle[empty_i + k];
-                this.puzzle[this.empty_i + k] = 0;
-                this.empty_i += k;
-            } else if (action == LEFT) {
-                this.puzzle[this.empty_i] = puzzle[empty_i - 1];
-                this.puzzle[this.empty_i - 1] = 0;
-                this.empty_i -= 1;
-            } else if (action == RIGHT) {
-                this.puzzle[this.empty_i] = puzzle[empty_i + 1];
-                this.puzzle[this.empty_i + 1] = 0;
-                this.empty_i += 1;
-            }
+            this.apply(action);
+        }
+
+        /**
+         * Build a new puzzle, cloning a parent one and applying the action.
+         * The hash is derived from the one of the parent.
+         *
+         * @param parent The current puzzle.
+         * @param action The new action.
+         */
+        private KSquaredState(@NotNull KSquaredState parent, @NotNull Action action) {
+            this.empty_i = parent.empty_i;
+            this.hash = parent.hash;
+            this.puzzle = parent.puzzle.clone();
+
+            assert this.getActions().contains(action);
+            this.apply(action);
         }
 
         @Override
@@ -211,7 +458,33 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
 
         @Override
         public @NotNull State performAction(Action action) {
-            return new KSquaredState(this.puzzle, this.empty_i, action);
+            return new KSquaredState(this, action);
+        }
+
+        @Override
+        public @NotNull State copy() {
+            return new KSquaredState(this.puzzle);
+        }
+
+        /**
+         * Move 'void', swapping it with the neighbouring number.
+         *
+         * @return Always 0, the inverse action is enough to undo a move.
+         */
+        @Override
+        public int apply(@NotNull Action action) {
+            final int target = this.empty_i + offset(action);
+            final int tile = this.puzzle[target];
+            this.puzzle[this.empty_i] = tile;
+            this.puzzle[target] = 0;
+            this.hash ^= zobrist.key(target, tile) ^ zobrist.key(this.empty_i, tile);
+            this.empty_i = target;
+            return 0;
+        }
+
+        @Override
+        public void undo(@NotNull Action action, int token) {
+            this.apply(getInverseAction(action));
         }
 
         @Override
@@ -220,12 +493,17 @@ public class KSquaredPuzzle extends Problem implements Heuristic<KSquaredPuzzle.
             if (o == null || getClass() != o.getClass()) return false;
 
             KSquaredState state = (KSquaredState)o;
-            return Arrays.equals(this.puzzle, state.puzzle);
+            return this.hash == state.hash && Arrays.equals(this.puzzle, state.puzzle);
         }
 
         @Override
         public int hashCode() {
-            return Arrays.hashCode(this.puzzle);
+            return Zobrist.fold(this.hash);
+        }
+
+        @Override
+        public long longHashCode() {
+            return this.hash;
         }
 
         @Override
@@ -0,0 +1,70 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+
+/**
+ * Allow problems to pack their states into a single `long`.
+ * Agents can then search the packed states space, without allocating a `State` per node.
+ */
+public interface LongEncoding<T extends State> {
+
+    /**
+     * Not every instance of a problem fits 64 bits.
+     *
+     * @return True if the states of this instance can be packed.
+     */
+    boolean isLongEncodable();
+
+    /**
+     * Pack a state.
+     *
+     * @param state The state to be packed.
+     * @return The packed state.
+     */
+    long encode(@NotNull T state);
+
+    /**
+     * Unpack a state.
+     *
+     * @param code A packed state.
+     * @return The state.
+     */
+    @NotNull
+    T decode(long code);
+
+    /**
+     * Return every action of the problem.
+     * Packed successors refer to actions through their index in this array.
+     *
+     * @return The actions of the problem.
+     */
+    @NotNull
+    Action[] getPackedActions();
+
+    /**
+     * Return the maximum number of successors of a packed state.
+     *
+     * @return The maximum branching factor.
+     */
+    int getMaxSuccessors();
+
+    /**
+     * Generate the successors of a packed state.
+     *
+     * @param code A packed state.
+     * @param children Filled with the packed successors, it must hold at least `getMaxSuccessors()` elements.
+     * @param actions Filled with the index of the action leading to each successor.
+     * @return The number of successors.
+     */
+    int packedSuccessors(long code, @NotNull long[] children, @NotNull int[] actions);
+
+    /**
+     * Is the given packed state a goal for this problem?
+     *
+     * @param code A packed state.
+     * @return True if this state is a goal.
+     */
+    boolean isPackedGoal(long code);
+}
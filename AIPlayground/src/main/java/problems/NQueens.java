@@ -6,6 +6,8 @@ import csp.Variable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import problem_elements.Action;
+import problem_elements.ActionView;
+import problem_elements.MutableState;
 import problem_elements.State;
 
 import java.util.*;
@@ -18,7 +20,8 @@ import java.util.stream.IntStream;
 public class NQueens extends Problem implements
         Utility<NQueens.NQueensState>,
         GeneticEncoding<NQueens.NQueensState, Integer>,
-        CSPEncoding<Integer>
+        CSPEncoding<Integer>,
+        LongEncoding<NQueens.NQueensState>
 {
 
     /**
@@ -32,24 +35,56 @@ public class NQueens extends Problem implements
     private Random mutator = null;
 
     /**
-     * The possible actions, for each puzzle instance, are finite.
-     * Generate them once and for all.
+     * The possible actions, indexed by their code, each created on first use and shared by every state:
+     * agents not enumerating the actions (e.g. local search on large boards) do not pay for the n^2 actions.
      */
-    private final NQueensAction[][] possible_actions;
+    private NQueensAction[] possible_actions = null;
 
     public NQueens(@NotNull String name, int n) {
         super(name);
 
         assert n > 0;
         this.n = n;
+    }
 
-        possible_actions = new NQueensAction[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                possible_actions[i][j] = new NQueensAction(
-                        String.format("Queen #%d in row %d", j, i), i, j
-                );
-            }
+    /**
+     * Racing threads may build the same action twice, which is harmless: actions are interchangeable.
+     *
+     * @param code The code of the action, `row * n + column`.
+     * @return The action moving the queen of `column` to `row`.
+     */
+    public @NotNull NQueensAction action(int code) {
+        this.checkActionCodes();
+
+        NQueensAction[] possible_actions = this.possible_actions;
+        if (possible_actions == null) {
+            possible_actions = this.possible_actions = new NQueensAction[n * n];
+        }
+
+        NQueensAction action = possible_actions[code];
+        if (action == null) {
+            action = possible_actions[code] = new NQueensAction(code / n, code % n);
+        }
+
+        return action;
+    }
+
+    /**
+     * Actions are coded by an int, so that boards larger than 46340 queens can't enumerate them:
+     * only agents moving the queens by themselves (e.g. `MinConflictsAgent`) can solve those.
+     */
+    @Override
+    public boolean canEnumerateActions() {
+        return (long) n * n <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * @throws IllegalStateException If the codes of the actions do not fit an int.
+     */
+    private void checkActionCodes() {
+        if (!this.canEnumerateActions()) {
+            throw new IllegalStateException(
+                    String.format("The actions of a board with %d queens can't be enumerated.", n));
         }
     }
 
@@ -61,18 +96,18 @@ public class NQueens extends Problem implements
         }
         NQueensState qState = (NQueensState)state;
 
-        // Check that the queen is on a different row.
-        if (Arrays.stream(qState.positions).distinct().count() < n) {
-            return false;
-        }
+        // Each row and diagonal segment holds at most a queen, check it in O(n).
+        final boolean[] rows = new boolean[n];
+        final boolean[] diagonals = new boolean[2 * n - 1];
+        final boolean[] anti_diagonals = new boolean[2 * n - 1];
 
-        // Be sure that queens are on different diagonal segments.
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                if (Math.abs(qState.positions[i] - qState.positions[j]) == j - i) {
-                    return false;
-                }
+        for (int j = 0; j < n; j++) {
+            final int row = qState.positions[j];
+            if (rows[row] || diagonals[row + j] || anti_diagonals[row - j + n - 1]) {
+                return false;
             }
+
+            rows[row] = diagonals[row + j] = anti_diagonals[row - j + n - 1] = true;
         }
 
         return true;
@@ -224,12 +259,102 @@ public class NQueens extends Problem implements
         return new NQueensState(positions);
     }
 
+    /**
+     * Up to 16 queens are packed with 4 bits per queen, the row of queen `i` being stored at bits `[4i, 4i + 4)`.
+     */
+    @Override
+    public boolean isLongEncodable() {
+        return n <= 16;
+    }
+
+    @Override
+    public long encode(@NotNull NQueensState state) {
+        assert this.isLongEncodable();
+
+        long code = 0;
+        for (int i = 0; i < n; i++) {
+            code |= (long) state.positions[i] << (i << 2);
+        }
+
+        return code;
+    }
+
+    @Override
+    public @NotNull NQueensState decode(long code) {
+        final int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = (int) (code >>> (i << 2)) & 0xF;
+        }
+
+        return new NQueensState(positions);
+    }
+
+    /**
+     * The action moving queen `column` to `row` has index `row * n + column`.
+     */
+    @Override
+    public @NotNull Action[] getPackedActions() {
+        final Action[] actions = new Action[n * n];
+        for (int code = 0; code < n * n; code++) {
+            actions[code] = this.action(code);
+        }
+
+        return actions;
+    }
+
+    @Override
+    public int getMaxSuccessors() {
+        return n * (n - 1);
+    }
+
+    @Override
+    public int packedSuccessors(long code, @NotNull long[] children, @NotNull int[] actions) {
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                final long row = (code >>> (j << 2)) & 0xF;
+                if (row != i) {
+                    children[count] = code - (row << (j << 2)) + ((long) i << (j << 2));
+                    actions[count++] = i * n + j;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public boolean isPackedGoal(long code) {
+        int rows = 0, diagonals = 0, anti_diagonals = 0;
+
+        for (int j = 0; j < n; j++) {
+            final int row = (int) (code >>> (j << 2)) & 0xF;
+            final int diagonal = 1 << (row + j), anti_diagonal = 1 << (row - j + n - 1);
+
+            if ((rows & (1 << row)) != 0 || (diagonals & diagonal) != 0 || (anti_diagonals & anti_diagonal) != 0) {
+                return false;
+            }
+
+            rows |= 1 << row;
+            diagonals |= diagonal;
+            anti_diagonals |= anti_diagonal;
+        }
+
+        return true;
+    }
+
     /**
      * An action, for this problem, consists of moving a single queen through
      * her column on the chessboard, up to a specified row.
      */
     public class NQueensAction extends Action {
 
+        /**
+         * The code of the action, `row * n + column`.
+         */
+        public final int code;
+
         /**
          * The index of the queen to be moved.
          */
@@ -243,18 +368,23 @@ public class NQueens extends Problem implements
         /**
          * An Action for the NQueens problem.
          *
-         * @param name A human readable name for this action.
          * @param row The row to which selected queen will be moved.
          * @param column The column selecting the queen to be moved.
          */
-        public NQueensAction(@NotNull String name, int row, int column) {
-            super(name, 1);
+        private NQueensAction(int row, int column) {
+            super(1);
 
             assert row < n;
             assert column < n;
 
             this.row = row;
             this.column = column;
+            this.code = row * n + column;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return String.format("Queen #%d in row %d", this.column, this.row);
         }
     }
 
@@ -262,7 +392,7 @@ public class NQueens extends Problem implements
      * Represent a possible state for the world of this problem.
      * i.e. a possible configuration of the queens on the chessboard.
      */
-    public class NQueensState extends State {
+    public class NQueensState extends State implements MutableState {
 
         /**
          * An array keeping representing columns of the chessboard.
@@ -313,17 +443,19 @@ public class NQueens extends Problem implements
 
         @Override
         public @NotNull Iterable<Action> getActions() {
-            final ArrayList<Action> actions = new ArrayList<>();
+            checkActionCodes();
 
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    if (positions[j] != i) {
-                        actions.add(possible_actions[i][j]);
-                    }
+            return new ActionView(n * n) {
+                @Override
+                protected boolean isValid(int code) {
+                    return positions[code % n] != code / n;
                 }
-            }
 
-            return actions;
+                @Override
+                protected @NotNull Action action(int code) {
+                    return NQueens.this.action(code);
+                }
+            };
         }
 
         @Override
@@ -331,6 +463,31 @@ public class NQueens extends Problem implements
             return new NQueensState(this.positions, action);
         }
 
+        @Override
+        public @NotNull State copy() {
+            return new NQueensState(this.positions);
+        }
+
+        /**
+         * Move the queen.
+         *
+         * @return The row the queen was moved from.
+         */
+        @Override
+        public int apply(@NotNull Action action) {
+            assert action instanceof NQueensAction;
+            final NQueensAction qAction = (NQueensAction) action;
+
+            final int previous_row = this.positions[qAction.column];
+            this.positions[qAction.column] = qAction.row;
+            return previous_row;
+        }
+
+        @Override
+        public void undo(@NotNull Action action, int token) {
+            this.positions[((NQueensAction) action).column] = token;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
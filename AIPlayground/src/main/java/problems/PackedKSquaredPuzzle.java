@@ -0,0 +1,248 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.LongHashable;
+import problem_elements.MutableState;
+import problem_elements.State;
+import problem_elements.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The `KSquaredPuzzle`, with states packed in a single `long` (4 bits per cell, as in its `LongEncoding`).
+ *
+ * Only puzzles up to 4x4 fit. The actions available and the cell swapped with 'void' by each of them
+ * are precomputed for each position of 'void': a move, an equality check or an hash are a handful of bit operations,
+ * and `getActions()` returns a shared list.
+ * The heuristic is the same one of the `KSquaredPuzzle` (pattern databases included).
+ */
+public class PackedKSquaredPuzzle extends Problem implements
+        IncrementalHeuristic<PackedKSquaredPuzzle.PackedState>,
+        Reversible<PackedKSquaredPuzzle.PackedState>
+{
+    /**
+     * The puzzle in its array form, defining moves and heuristic.
+     */
+    @NotNull
+    public final KSquaredPuzzle puzzle;
+
+    /**
+     * The dimension of the puzzle.
+     */
+    public final int k;
+
+    /**
+     * Every action, indexed as in the move tables.
+     */
+    private final static Action[] ACTIONS = {KSquaredPuzzle.UP, KSquaredPuzzle.DOWN, KSquaredPuzzle.LEFT, KSquaredPuzzle.RIGHT};
+
+    /**
+     * For each position of 'void', the available actions.
+     */
+    private final ArrayList<List<Action>> actions;
+
+    /**
+     * For each position of 'void' and each action, the cell swapped with 'void' (or -1).
+     */
+    private final int[][] targets;
+
+    @NotNull
+    private final PackedState goal;
+
+    public PackedKSquaredPuzzle(@NotNull String name, int k) {
+        super(name);
+
+        assert k > 1 && k <= 4;
+        this.k = k;
+        this.puzzle = new KSquaredPuzzle(name, k);
+
+        this.actions = new ArrayList<>(k * k);
+        this.targets = new int[k * k][ACTIONS.length];
+        for (int empty = 0; empty < k * k; empty++) {
+            final int row = empty / k, column = empty % k;
+            final int[] targets = {
+                    row != 0 ? empty - k : -1,
+                    row != k - 1 ? empty + k : -1,
+                    column != 0 ? empty - 1 : -1,
+                    column != k - 1 ? empty + 1 : -1,
+            };
+
+            final List<Action> actions = new ArrayList<>(ACTIONS.length);
+            for (int a = 0; a < ACTIONS.length; a++) {
+                if (targets[a] != -1) {
+                    actions.add(ACTIONS[a]);
+                }
+            }
+
+            this.targets[empty] = targets;
+            this.actions.add(Collections.unmodifiableList(actions));
+        }
+
+        this.goal = this.pack(this.puzzle.getGoalStates().iterator().next());
+    }
+
+    /**
+     * @param state A state of the array form.
+     * @return The packed state.
+     */
+    public @NotNull PackedState pack(@NotNull KSquaredPuzzle.KSquaredState state) {
+        return new PackedState(this.puzzle.encode(state));
+    }
+
+    /**
+     * @param state A packed state.
+     * @return The state in the array form.
+     */
+    public @NotNull KSquaredPuzzle.KSquaredState unpack(@NotNull PackedState state) {
+        return this.puzzle.decode(state.code);
+    }
+
+    @Override
+    public @NotNull State buildRandomState() {
+        return this.pack((KSquaredPuzzle.KSquaredState) this.puzzle.buildRandomState());
+    }
+
+    @Override
+    public boolean isGoal(@NotNull State state) {
+        return ((PackedState) state).code == this.goal.code;
+    }
+
+    @Override
+    public float getHeuristicValue(@NotNull PackedState state) {
+        if (this.puzzle.pattern_database != null) {
+            return this.puzzle.getHeuristicValue(this.unpack(state));
+        }
+
+        int value = 0;
+        for (int i = 0; i < k * k; i++) {
+            final int tile = state.tile(i);
+            if (tile != 0) {
+                value += this.puzzle.manhattan(tile, i);
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public float getHeuristicValue(@NotNull PackedState state, @NotNull Action arriving_action, float parent_value) {
+        if (this.puzzle.pattern_database != null) {
+            return this.getHeuristicValue(state);
+        }
+
+        final int tile_position = this.targets[state.empty][index(this.puzzle.getInverseAction(arriving_action))];
+        final int tile = state.tile(tile_position);
+
+        return parent_value - this.puzzle.manhattan(tile, state.empty) + this.puzzle.manhattan(tile, tile_position);
+    }
+
+    @Override
+    public @NotNull Iterable<PackedState> getGoalStates() {
+        return Collections.singletonList(this.goal);
+    }
+
+    @Override
+    public @NotNull Action getInverseAction(@NotNull Action action) {
+        return this.puzzle.getInverseAction(action);
+    }
+
+    private static int index(@NotNull Action action) {
+        for (int a = 0; a < ACTIONS.length; a++) {
+            if (ACTIONS[a] == action) {
+                return a;
+            }
+        }
+
+        throw new IllegalArgumentException("Not an action of the puzzle: " + action + ".");
+    }
+
+    public class PackedState extends State implements MutableState, LongHashable {
+        /**
+         * The packed cells: cell `i` is stored at bits `[4i, 4i + 4)`.
+         */
+        private long code;
+
+        /**
+         * The position of 'void'.
+         */
+        private int empty;
+
+        private PackedState(long code) {
+            this.code = code;
+            this.empty = KSquaredPuzzle.packedEmpty(code);
+        }
+
+        private PackedState(long code, int empty) {
+            this.code = code;
+            this.empty = empty;
+        }
+
+        /**
+         * @return The value in a cell.
+         */
+        public int tile(int cell) {
+            return (int) (this.code >>> (cell << 2)) & 0xF;
+        }
+
+        @Override
+        public @NotNull List<Action> getActions() {
+            return actions.get(this.empty);
+        }
+
+        @Override
+        public @NotNull State performAction(Action action) {
+            final PackedState child = new PackedState(this.code, this.empty);
+            child.apply(action);
+            return child;
+        }
+
+        @Override
+        public @NotNull State copy() {
+            return new PackedState(this.code, this.empty);
+        }
+
+        /**
+         * @return Always 0, the inverse action is enough to undo a move.
+         */
+        @Override
+        public int apply(@NotNull Action action) {
+            final int target = targets[this.empty][index(action)];
+            assert target != -1;
+
+            this.code = KSquaredPuzzle.packedMove(this.code, this.empty, target);
+            this.empty = target;
+            return 0;
+        }
+
+        @Override
+        public void undo(@NotNull Action action, int token) {
+            this.apply(getInverseAction(action));
+        }
+
+        @Override
+        public long longHashCode() {
+            return this.code * 0x9E3779B97F4A7C15L;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            return this.code == ((PackedState) o).code;
+        }
+
+        @Override
+        public int hashCode() {
+            return Zobrist.fold(this.longHashCode());
+        }
+
+        @Override
+        public String toString() {
+            return unpack(this).toString();
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package problems;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Additive disjoint pattern databases for the `KSquaredPuzzle`.
+ *
+ * The tiles are split in disjoint groups. For each group, a retrograde breadth first search from the goal
+ * finds the number of moves of the group tiles needed to place them, wherever the other tiles are.
+ * Since only the moves of its own tiles are counted by each group, the values of the groups can be added.
+ *
+ * The placements of a group are ranked with a perfect hash, and each value is stored in a nibble,
+ * as half its distance from the Manhattan distance of the group tiles (the two always have the same parity).
+ * Databases can be saved to a file, and loaded through a `MappedByteBuffer`:
+ * several processes loading the same file share it in the page cache.
+ */
+public class PatternDatabase implements Heuristic<KSquaredPuzzle.KSquaredState> {
+
+    private static final Logger logger = LogManager.getLogger(MethodHandles.lookup().lookupClass().getSimpleName());
+
+    /**
+     * Identify the files holding a pattern database.
+     */
+    private static final int MAGIC = 0x50444231;  // "PDB1"
+
+    /**
+     * The largest value that fits a nibble.
+     */
+    private static final int MAX_NIBBLE = 0xF;
+
+    /**
+     * The default number of tiles in each group.
+     */
+    public static final int DEFAULT_GROUP_SIZE = 5;
+
+    /**
+     * The dimension of the puzzle.
+     */
+    public final int k;
+
+    /**
+     * The tiles of each group.
+     */
+    private final int[][] groups;
+
+    /**
+     * The nibble-packed values of each group, indexed by rank.
+     */
+    private final ByteBuffer[] tables;
+
+    /**
+     * Build the pattern databases of a puzzle, splitting its tiles in consecutive groups of `DEFAULT_GROUP_SIZE`.
+     *
+     * @param puzzle The puzzle.
+     */
+    public PatternDatabase(@NotNull KSquaredPuzzle puzzle) {
+        this(puzzle, partition(puzzle.k, DEFAULT_GROUP_SIZE));
+    }
+
+    /**
+     * Build the pattern databases of a puzzle.
+     *
+     * @param puzzle The puzzle.
+     * @param groups Disjoint groups of tiles, covering every tile from 1 to `k * k - 1`.
+     */
+    public PatternDatabase(@NotNull KSquaredPuzzle puzzle, @NotNull int[][] groups) {
+        this.k = puzzle.k;
+        this.groups = copyOf(groups);
+        assert this.isPartition();
+
+        this.tables = new ByteBuffer[groups.length];
+        for (int g = 0; g < groups.length; g++) {
+            logger.info("Building pattern database for tiles {}.", Arrays.toString(this.groups[g]));
+            this.tables[g] = ByteBuffer.wrap(this.build(this.groups[g]));
+        }
+    }
+
+    private PatternDatabase(int k, @NotNull int[][] groups, @NotNull ByteBuffer[] tables) {
+        this.k = k;
+        this.groups = groups;
+        this.tables = tables;
+    }
+
+    /**
+     * Split the tiles of a puzzle in consecutive groups.
+     *
+     * @param k The dimension of the puzzle.
+     * @param group_size The number of tiles in each group, the last one may be smaller.
+     * @return The groups of tiles.
+     */
+    public static @NotNull int[][] partition(int k, int group_size) {
+        assert group_size > 0;
+        final int tiles = k * k - 1;
+        final int[][] groups = new int[(tiles + group_size - 1) / group_size][];
+
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = new int[Math.min(group_size, tiles - g * group_size)];
+            for (int i = 0; i < groups[g].length; i++) {
+                groups[g][i] = g * group_size + i + 1;
+            }
+        }
+
+        return groups;
+    }
+
+    @Override
+    public float getHeuristicValue(@NotNull KSquaredPuzzle.KSquaredState state) {
+        assert state.puzzle.length == k * k;
+
+        final int[] positions = new int[state.puzzle.length];
+        for (int i = 0; i < state.puzzle.length; i++) {
+            positions[state.puzzle[i]] = i;
+        }
+
+        int value = 0;
+        final int[] pattern = new int[this.maxGroupSize()];
+        for (int g = 0; g < this.groups.length; g++) {
+            final int[] group = this.groups[g];
+
+            int manhattan = 0;
+            for (int i = 0; i < group.length; i++) {
+                pattern[i] = positions[group[i]];
+                manhattan += this.manhattan(group[i], pattern[i]);
+            }
+
+            value += manhattan + 2 * nibble(this.tables[g], rank(pattern, group.length, k * k));
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrograde breadth first search over the placements of a group and of 'void'.
+     * Moving 'void' over a tile outside of the group is free, moving a tile of the group costs 1.
+     *
+     * @param group The tiles of the group.
+     * @return The nibble-packed values, indexed by the rank of the placement.
+     */
+    private @NotNull byte[] build(@NotNull int[] group) {
+        final int cells = k * k;
+        final int placements = placements(cells, group.length);
+        assert (long) placements * cells <= Integer.MAX_VALUE : "The group is too large.";
+
+        // The distance of each placement of the group and of 'void', -1 if unknown.
+        final byte[] distances = new byte[placements * cells];
+        Arrays.fill(distances, (byte) -1);
+
+        final int[] goal = new int[group.length];
+        for (int i = 0; i < group.length; i++) {
+            goal[i] = group[i] - 1;
+        }
+
+        int[] layer = {rank(goal, goal.length, cells) * cells + (cells - 1)};
+        int layer_size = 1;
+        int[] next = new int[1024];
+
+        final int[] pattern = new int[group.length];
+        final int[] owners = new int[cells];  // The index in the group of the tile in each cell, or -1.
+        final int[][] neighbours = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            neighbours[cell] = this.neighbours(cell);
+        }
+
+        for (int distance = 0; layer_size > 0; distance++) {
+            assert distance <= Byte.MAX_VALUE;
+            int next_size = 0;
+
+            for (int i = 0; i < layer_size; i++) {
+                final int code = layer[i];
+                if (distances[code] != -1) {
+                    continue;
+                }
+                distances[code] = (byte) distance;
+
+                final int blank = code % cells;
+                unrank(code / cells, pattern, cells);
+                Arrays.fill(owners, -1);
+                for (int j = 0; j < pattern.length; j++) {
+                    owners[pattern[j]] = j;
+                }
+
+                for (int neighbour : neighbours[blank]) {
+                    final int owner = owners[neighbour];
+                    if (owner == -1) {
+                        // Free move: it belongs to the current layer.
+                        final int child = code - blank + neighbour;
+                        if (distances[child] == -1) {
+                            if (layer_size == layer.length) {
+                                layer = Arrays.copyOf(layer, layer.length << 1);
+                            }
+                            layer[layer_size++] = child;
+                        }
+                    } else {
+                        pattern[owner] = blank;
+                        final int child = rank(pattern, pattern.length, cells) * cells + neighbour;
+                        pattern[owner] = neighbour;
+
+                        if (distances[child] == -1) {
+                            if (next_size == next.length) {
+                                next = Arrays.copyOf(next, next.length << 1);
+                            }
+                            next[next_size++] = child;
+                        }
+                    }
+                }
+            }
+
+            final int[] swap = layer;
+            layer = next;
+            layer_size = next_size;
+            next = swap;
+        }
+
+        // Keep the best placement of 'void', and pack the values.
+        final byte[] table = new byte[(placements + 1) >>> 1];
+        for (int r = 0; r < placements; r++) {
+            unrank(r, pattern, cells);
+
+            int best = Integer.MAX_VALUE;
+            for (int blank = 0; blank < cells; blank++) {
+                final int distance = distances[r * cells + blank];
+                if (distance != -1) {
+                    best = Math.min(best, distance);
+                }
+            }
+            assert best != Integer.MAX_VALUE;
+
+            int manhattan = 0;
+            for (int i = 0; i < group.length; i++) {
+                manhattan += this.manhattan(group[i], pattern[i]);
+            }
+            assert (best - manhattan) % 2 == 0 && best >= manhattan;
+
+            // Saturating keeps the heuristic admissible.
+            final int value = Math.min((best - manhattan) >>> 1, MAX_NIBBLE);
+            table[r >>> 1] |= (r & 1) == 0 ? value : value << 4;
+        }
+
+        return table;
+    }
+
+    /**
+     * Return the cells next to a given one.
+     */
+    private @NotNull int[] neighbours(int cell) {
+        final int row = cell / k, column = cell % k;
+        final int[] neighbours = new int[4];
+        int count = 0;
+
+        if (row != 0) neighbours[count++] = cell - k;
+        if (row != k - 1) neighbours[count++] = cell + k;
+        if (column != 0) neighbours[count++] = cell - 1;
+        if (column != k - 1) neighbours[count++] = cell + 1;
+
+        return Arrays.copyOf(neighbours, count);
+    }
+
+    /**
+     * The Manhattan distance of a tile from its goal cell.
+     */
+    private int manhattan(int tile, int cell) {
+        return Math.abs((tile - 1) / k - cell / k) + Math.abs((tile - 1) % k - cell % k);
+    }
+
+    private static int nibble(@NotNull ByteBuffer table, int rank) {
+        final int packed = table.get(rank >>> 1);
+        return (rank & 1) == 0 ? packed & MAX_NIBBLE : (packed >>> 4) & MAX_NIBBLE;
+    }
+
+    /**
+     * The number of placements of `size` distinct tiles in `cells` cells.
+     */
+    private static int placements(int cells, int size) {
+        long placements = 1;
+        for (int i = 0; i < size; i++) {
+            placements *= cells - i;
+        }
+
+        assert placements <= Integer.MAX_VALUE;
+        return (int) placements;
+    }
+
+    /**
+     * Rank a placement of distinct tiles, in `[0, placements(cells, size))`.
+     * Each cell is encoded as its index among the cells not taken by the previous tiles.
+     */
+    static int rank(@NotNull int[] pattern, int size, int cells) {
+        int rank = 0;
+        for (int i = 0; i < size; i++) {
+            int digit = pattern[i];
+            for (int j = 0; j < i; j++) {
+                if (pattern[j] < pattern[i]) {
+                    digit--;
+                }
+            }
+
+            rank = rank * (cells - i) + digit;
+        }
+
+        return rank;
+    }
+
+    /**
+     * The inverse of `rank`.
+     */
+    static void unrank(int rank, @NotNull int[] pattern, int cells) {
+        for (int i = pattern.length - 1; i >= 0; i--) {
+            pattern[i] = rank % (cells - i);
+            rank /= cells - i;
+        }
+
+        // Turn each index among the free cells into a cell.
+        long taken = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            int cell = 0;
+            for (int free = pattern[i]; ; cell++) {
+                if ((taken & (1L << cell)) == 0 && free-- == 0) {
+                    break;
+                }
+            }
+
+            taken |= 1L << cell;
+            pattern[i] = cell;
+        }
+    }
+
+    /**
+     * Write the databases to a file.
+     *
+     * @param file The destination.
+     */
+    public void save(@NotNull Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(this.k);
+            out.writeInt(this.groups.length);
+            for (int[] group : this.groups) {
+                out.writeInt(group.length);
+                for (int tile : group) {
+                    out.writeInt(tile);
+                }
+            }
+
+            for (ByteBuffer table : this.tables) {
+                for (int i = 0; i < table.limit(); i++) {
+                    out.write(table.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Map the databases saved in a file.
+     *
+     * @param puzzle The puzzle.
+     * @param file A file written by `save`.
+     * @return The databases.
+     * @throws IOException If the file can not be read, or it does not hold databases for this puzzle.
+     */
+    public static @NotNull PatternDatabase load(@NotNull KSquaredPuzzle puzzle, @NotNull Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a pattern database: " + file + ".");
+        }
+
+        final int k = buffer.getInt();
+        if (k != puzzle.k) {
+            throw new IOException(String.format("The pattern database is for k = %d, not %d.", k, puzzle.k));
+        }
+
+        final int[][] groups = new int[buffer.getInt()][];
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = new int[buffer.getInt()];
+            for (int i = 0; i < groups[g].length; i++) {
+                groups[g][i] = buffer.getInt();
+            }
+        }
+
+        final ByteBuffer[] tables = new ByteBuffer[groups.length];
+        for (int g = 0; g < groups.length; g++) {
+            final int size = (placements(k * k, groups[g].length) + 1) >>> 1;
+            if (buffer.remaining() < size) {
+                throw new IOException("Truncated pattern database: " + file + ".");
+            }
+
+            final ByteBuffer table = buffer.slice();
+            ((Buffer) table).limit(size);  // Through `Buffer`, to run on Java 8 as well.
+            tables[g] = table;
+            ((Buffer) buffer).position(buffer.position() + size);
+        }
+
+        final PatternDatabase database = new PatternDatabase(k, groups, tables);
+        if (!database.isPartition()) {
+            throw new IOException("The groups of the pattern database are not a partition of the tiles.");
+        }
+
+        return database;
+    }
+
+    /**
+     * Check that the groups hold each tile exactly once.
+     */
+    private boolean isPartition() {
+        final boolean[] seen = new boolean[k * k];
+        int count = 0;
+
+        for (int[] group : this.groups) {
+            for (int tile : group) {
+                if (tile <= 0 || tile >= k * k || seen[tile]) {
+                    return false;
+                }
+
+                seen[tile] = true;
+                count++;
+            }
+        }
+
+        return count == k * k - 1;
+    }
+
+    private int maxGroupSize() {
+        int size = 0;
+        for (int[] group : this.groups) {
+            size = Math.max(size, group.length);
+        }
+
+        return size;
+    }
+
+    private static @NotNull int[][] copyOf(@NotNull int[][] groups) {
+        final int[][] copy = new int[groups.length][];
+        for (int g = 0; g < groups.length; g++) {
+            copy[g] = groups[g].clone();
+        }
+
+        return copy;
+    }
+}
@@ -38,4 +38,13 @@ public abstract class Problem {
      * @return True if this state is a goal.
      */
     public abstract boolean isGoal(@NotNull State state);
+
+    /**
+     * Agents searching through the actions of the states reject problems that can't enumerate them.
+     *
+     * @return False if `State.getActions()` fails, e.g. because the instance is too large.
+     */
+    public boolean canEnumerateActions() {
+        return true;
+    }
 }
@@ -0,0 +1,29 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+
+/**
+ * Allow problems to be searched backward, from their goals.
+ * Every action must be reversible: performing an action and then its inverse leads back to the starting state.
+ */
+public interface Reversible<T extends State> {
+
+    /**
+     * Return every goal state of the problem.
+     *
+     * @return The goal states.
+     */
+    @NotNull
+    Iterable<T> getGoalStates();
+
+    /**
+     * Return the action undoing the given one.
+     *
+     * @param action An action.
+     * @return The inverse of the action.
+     */
+    @NotNull
+    Action getInverseAction(@NotNull Action action);
+}
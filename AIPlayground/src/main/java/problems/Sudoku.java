@@ -2,11 +2,16 @@ package problems;
 
 import csp.CSP;
 import csp.Constraint;
+import csp.ExactCover;
 import csp.Variable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import problem_elements.Action;
+import problem_elements.ActionView;
+import problem_elements.LongHashable;
+import problem_elements.MutableState;
 import problem_elements.State;
+import problem_elements.Zobrist;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,7 +21,13 @@ import java.util.stream.IntStream;
  * Sudoku game implementation.
  */
 public class Sudoku extends Problem implements
-        CSPEncoding<Integer> {
+        CSPEncoding<Integer>,
+        ExactCoverEncoding {
+
+    /**
+     * The largest sudoku whose values fit the `int` masks of a unit (and the `byte` cells of a grid).
+     */
+    public static final int MAX_N = 25;
 
     /**
      * The matrix length.
@@ -24,42 +35,52 @@ public class Sudoku extends Problem implements
     public final int n;
 
     /**
-     * All the possible actions.
+     * The possible actions, indexed by their code, each created on first use and shared by every state.
      */
     @NotNull
-    public final ArrayList<ArrayList<ArrayList<SudokuAction>>> all_actions;
+    private final SudokuAction[] all_actions;
+
+    /**
+     * The keys hashing the states of this sudoku.
+     */
+    private final Zobrist zobrist;
 
     /**
      * Generate a new sudoku problem, whose matrix length is `n`.
      *
      * @param name The name of the problem.
      * @param n The length of the sudoku as matrix.
+     * @throws IllegalArgumentException If `n` is greater than `MAX_N`.
      */
     public Sudoku(@NotNull String name, int n) {
         super(name);
 
         assert n > 0;
         assert Math.pow((int) Math.sqrt((double) n), 2) == n;
+        if (n > MAX_N) {
+            throw new IllegalArgumentException(String.format("Sudokus larger than %d x %d are not supported.", MAX_N, MAX_N));
+        }
+
         this.n = n;
+        this.zobrist = new Zobrist(n * n, n + 1);
 
-        this.all_actions = new ArrayList<>(n);
-
-        for (int i=0; i < n; i++){
-            final ArrayList<ArrayList<SudokuAction>> row_actions = new ArrayList<>(n);
-            for (int j=0; j < n; j++){
-                final ArrayList<SudokuAction> column_actions = new ArrayList<>(n);
-                for (int k=1; k <= n; k++){
-                    column_actions.add(
-                            new SudokuAction(
-                                    String.format("(%d, %d) -> %d", i, j, k),
-                                    i, j, k)
-                    );
-                }
-                row_actions.add(column_actions);
-            }
+        this.all_actions = new SudokuAction[n * n * n];
+    }
 
-            all_actions.add(row_actions);
+    /**
+     * Racing threads may build the same action twice, which is harmless: actions are interchangeable.
+     *
+     * @param code The code of the action, `(row * n + column) * n + value - 1`.
+     * @return The action putting `value` in the cell.
+     */
+    public @NotNull SudokuAction action(int code) {
+        SudokuAction action = this.all_actions[code];
+        if (action == null) {
+            final int cell = code / n;
+            action = this.all_actions[code] = new SudokuAction(cell / n, cell % n, code % n + 1);
         }
+
+        return action;
     }
 
     /**
@@ -116,12 +137,12 @@ public class Sudoku extends Problem implements
 
         final ArrayList<Variable<Integer>> variables = new ArrayList<>();
         for (int i = 0; i < n * n; i++) {
-            if (!state.given_cells[i / n][i % n]) {
+            if (!state.given_cells[i]) {
                 variables.add(new Variable<>(String.format("%d,%d", i / n, i % n),
                         new HashSet<>(defaultDomain)));
             } else {
                 final HashSet<Integer> domain = new HashSet<>(1);
-                domain.add(state.puzzle[i / n][i % n]);
+                domain.add((int) state.grid[i]);
                 variables.add(new Variable<>(String.format("%d,%d", i / n, i % n), domain));
             }
         }
@@ -166,15 +187,64 @@ public class Sudoku extends Problem implements
     public State stateFromCSP(@NotNull  List<Variable<Integer>> assignment) {
         assert assignment.size() == n * n;
 
-        final int[][] puzzle = new int[n][n];
+        final byte[] grid = new byte[n * n];
         for (int i = 0; i < n * n; i++) {
             Integer value = assignment.get(i).value;
             assert value != null;
-            puzzle[i / n][i % n] = value;
+            grid[i] = (byte) (int) value;
         }
 
         // Given cells is empty, but at this point is not important anymore.
-        return new SudokuState(puzzle, new boolean[n][n]);
+        return new SudokuState(grid, new boolean[n * n]);
+    }
+
+    /**
+     * Row `(row * n + column) * n + value - 1` (the code of the action) puts `value` in the cell.
+     * Its columns are the constraints it satisfies: the cell is filled, and the value appears in the row,
+     * in the column and in the box.
+     *
+     * @param initial_state A possibly null initial state, whose filled cells are selected.
+     */
+    @Override
+    public @NotNull ExactCover asExactCover(@Nullable State initial_state) {
+        final int sqrt_n = (int) Math.sqrt((double) n);
+        final ExactCover cover = new ExactCover(4 * n * n);
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                final int box = (i / sqrt_n) * sqrt_n + j / sqrt_n;
+                for (int k = 0; k < n; k++) {
+                    cover.addRow(i * n + j, n * n + i * n + k, 2 * n * n + j * n + k, 3 * n * n + box * n + k);
+                }
+            }
+        }
+
+        if (initial_state != null) {
+            assert initial_state instanceof SudokuState;
+            final SudokuState state = (SudokuState) initial_state;
+
+            for (int cell = 0; cell < n * n; cell++) {
+                if (state.grid[cell] > 0) {
+                    cover.select(cell * n + state.grid[cell] - 1);
+                }
+            }
+        }
+
+        return cover;
+    }
+
+    @NotNull
+    @Override
+    public State stateFromExactCover(@NotNull int[] rows) {
+        assert rows.length == n * n;
+
+        final byte[] grid = new byte[n * n];
+        for (int code : rows) {
+            grid[code / n] = (byte) (code % n + 1);
+        }
+
+        // Given cells is empty, as in `stateFromCSP`.
+        return new SudokuState(grid, new boolean[n * n]);
     }
 
     @Override
@@ -238,26 +308,28 @@ public class Sudoku extends Problem implements
         assert state instanceof SudokuState;
         SudokuState sudokuState = (SudokuState) state;
 
+        // A bit for each value already seen in each row, column and box.
         final int sqrt_n = (int) Math.sqrt((double) n);
-        return Arrays.stream(sudokuState.puzzle)  // Check for rows
-                .filter(row -> Arrays.stream(row).filter(i -> i > 0).distinct().count() == n
-                ).count() == n
-                &&
-                IntStream.range(0, n)  // Check for columns
-                        .filter(i -> IntStream.range(0, n)
-                                .map(j -> sudokuState.puzzle[j][i]).filter(k -> k > 0)
-                                .distinct().count() == n
-                        ).count() == n
-                &&
-                IntStream.range(0, n)  // Check for sub-matrices
-                        .filter(matrix_index -> IntStream.range(0, n).filter(
-                                row_column_index -> sudokuState.puzzle[
-                                        (row_column_index / sqrt_n) + (matrix_index / sqrt_n) * sqrt_n
-                                        ][
-                                        (row_column_index % sqrt_n) + (matrix_index % sqrt_n) * sqrt_n
-                                        ] > 0
-                        ).distinct().count() == n
-                ).count() == n;
+        final int[] rows = new int[n], columns = new int[n], boxes = new int[n];
+
+        for (int cell = 0; cell < n * n; cell++) {
+            final int value = sudokuState.grid[cell];
+            if (value == 0) {
+                return false;
+            }
+
+            final int bit = 1 << (value - 1);
+            final int i = cell / n, j = cell % n, box = (i / sqrt_n) * sqrt_n + j / sqrt_n;
+            if (((rows[i] | columns[j] | boxes[box]) & bit) != 0) {
+                return false;
+            }
+
+            rows[i] |= bit;
+            columns[j] |= bit;
+            boxes[box] |= bit;
+        }
+
+        return true;
     }
 
     /**
@@ -265,6 +337,11 @@ public class Sudoku extends Problem implements
      */
     public class SudokuAction extends Action {
 
+        /**
+         * The code of the action, `(row * n + column) * n + value - 1`.
+         */
+        public final int code;
+
         /**
          * The row of the cell.
          */
@@ -283,40 +360,50 @@ public class Sudoku extends Problem implements
         /**
          * An Action for the Sudoku problem.
          *
-         * @param name   A human readable name for this action.
          * @param row    The row of the selected cell.
          * @param column The column of the selected cell.
          * @param value  The value to put in the fixed cell.
          */
-        public SudokuAction(@NotNull String name, int row, int column, int value) {
-            super(name, 1);
+        private SudokuAction(int row, int column, int value) {
+            super(1);
 
             assert row < n && row >= 0;
             assert column < n && column >= 0;
-            assert value <= n && value >= 0;
+            assert value <= n && value > 0;
 
             this.row = row;
             this.column = column;
             this.value = value;
+            this.code = (row * n + column) * n + value - 1;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return String.format("(%d, %d) -> %d", this.row, this.column, this.value);
         }
     }
 
     /**
      * Represent a possible state for the world of this problem.
      */
-    public class SudokuState extends State {
+    public class SudokuState extends State implements MutableState, LongHashable {
 
         /**
-         * The sudoku matrix
+         * The sudoku matrix, row by row: cell `(i, j)` has index `i * n + j`, empty cells are 0.
          */
         @NotNull
-        public final int[][] puzzle;
+        public final byte[] grid;
 
         /**
-         * The sudoku already given cells.
+         * The sudoku already given cells, indexed as the grid.
          */
         @NotNull
-        public final boolean[][] given_cells;
+        public final boolean[] given_cells;
+
+        /**
+         * The Zobrist hash of the puzzle, kept up to date by each action.
+         */
+        private long hash = 0;
 
         /**
          * Generate a configuration for the sudoku using the input configuration.
@@ -327,17 +414,41 @@ public class Sudoku extends Problem implements
         public SudokuState(@NotNull int[][] puzzle, @NotNull boolean[][] given_cells) {
             assert puzzle.length == n;
 
-            this.puzzle = new int[n][n];
-            this.given_cells = new boolean[n][n];
+            this.grid = new byte[n * n];
+            this.given_cells = new boolean[n * n];
 
             for (int i = 0; i < n; i++){
                 for (int j = 0; j < n; j++){
-                    this.puzzle[i][j] = puzzle[i][j];
-                    this.given_cells[i][j] = given_cells[i][j];
+                    this.grid[i * n + j] = (byte) puzzle[i][j];
+                    this.given_cells[i * n + j] = given_cells[i][j];
+                    this.hash ^= zobrist.key(i * n + j, puzzle[i][j]);
                 }
             }
         }
 
+        /**
+         * Generate a configuration for the sudoku using the input configuration.
+         *
+         * @param grid The given puzzle, row by row.
+         * @param given_cells Unmodifiable cells.
+         */
+        public SudokuState(@NotNull byte[] grid, @NotNull boolean[] given_cells) {
+            assert grid.length == n * n && given_cells.length == n * n;
+
+            this.grid = grid.clone();
+            this.given_cells = given_cells.clone();
+            for (int cell = 0; cell < n * n; cell++) {
+                this.hash ^= zobrist.key(cell, grid[cell]);
+            }
+        }
+
+        /**
+         * @return The value of the cell, 0 if empty.
+         */
+        public int get(int row, int column) {
+            return this.grid[row * n + column];
+        }
+
         /**
          * Build a new puzzle, starting from the current one and applying the action.
          *
@@ -345,33 +456,63 @@ public class Sudoku extends Problem implements
          * @param action The action to be performed.
          */
         private SudokuState(@NotNull SudokuState state, @NotNull Action action) {
-            this(state.puzzle, state.given_cells);
-            assert action instanceof SudokuAction;
+            this.grid = state.grid.clone();
+            this.given_cells = state.given_cells.clone();
 
-            SudokuAction a = (SudokuAction) action;
-            this.puzzle[a.row][a.column] = a.value;
-            this.given_cells[a.row][a.column] = true;
+            this.hash = state.hash;
+            this.apply(action);
         }
 
         @Override
         public @NotNull Iterable<Action> getActions() {
-            final ArrayList<Action> actions = new ArrayList<>();
+            return new ActionView(n * n * n) {
+                @Override
+                protected boolean isValid(int code) {
+                    return !given_cells[code / n];
+                }
 
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
+                @Override
+                protected @NotNull Action action(int code) {
+                    return Sudoku.this.action(code);
+                }
+            };
+        }
 
-                    if(!given_cells[i][j]){
-                        actions.addAll(all_actions.get(i).get(j));
-                    }
+        @Override
+        public @NotNull State performAction(Action action) { return new SudokuState(this, action); }
 
-                }
-            }
+        @Override
+        public @NotNull State copy() {
+            return new SudokuState(this.grid, this.given_cells);
+        }
 
-            return actions;
+        /**
+         * Fill the cell.
+         *
+         * @return The previous value of the cell.
+         */
+        @Override
+        public int apply(@NotNull Action action) {
+            assert action instanceof SudokuAction;
+            final SudokuAction a = (SudokuAction) action;
+
+            final int cell = a.row * n + a.column;
+            final int previous_value = this.grid[cell];
+            this.grid[cell] = (byte) a.value;
+            this.hash ^= zobrist.change(cell, previous_value, a.value);
+            this.given_cells[cell] = true;
+            return previous_value;
         }
 
         @Override
-        public @NotNull State performAction(Action action) { return new SudokuState(this, action); }
+        public void undo(@NotNull Action action, int token) {
+            final SudokuAction a = (SudokuAction) action;
+
+            final int cell = a.row * n + a.column;
+            this.hash ^= zobrist.change(cell, this.grid[cell], token);
+            this.grid[cell] = (byte) token;
+            this.given_cells[cell] = false;  // Only cells that were not given can be filled.
+        }
 
         @Override
         public boolean equals(Object o) {
@@ -379,12 +520,17 @@ public class Sudoku extends Problem implements
             if (o == null || getClass() != o.getClass()) return false;
 
             SudokuState state = (SudokuState) o;
-            return Arrays.deepEquals(this.puzzle, state.puzzle);
+            return this.hash == state.hash && Arrays.equals(this.grid, state.grid);
         }
 
         @Override
         public int hashCode() {
-            return Arrays.deepHashCode(this.puzzle);
+            return Zobrist.fold(this.hash);
+        }
+
+        @Override
+        public long longHashCode() {
+            return this.hash;
         }
 
         @Override
@@ -392,7 +538,7 @@ public class Sudoku extends Problem implements
             StringBuilder s = new StringBuilder("\n");
 
             for (int i = 0; i < n; i++) {
-                s.append(Arrays.toString(this.puzzle[i]));
+                s.append(Arrays.toString(Arrays.copyOfRange(this.grid, i * n, (i + 1) * n)));
                 s.append("\n");
             }
 
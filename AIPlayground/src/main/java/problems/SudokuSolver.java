@@ -0,0 +1,284 @@
+package problems;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A fast solver for the `Sudoku`, meant for solving many puzzles in bulk.
+ *
+ * The values placed in each row, column and box are kept as bitmasks, so that the candidates of a cell
+ * are a bitwise or away. Before branching, naked singles (cells with a single candidate) and hidden singles
+ * (values fitting a single cell of a row, column or box) are placed, until none is left.
+ * Then the search branches on the cell with the fewest candidates; placements are undone through a trail.
+ * A solver is not thread-safe: use one per thread.
+ */
+public class SudokuSolver {
+
+    @NotNull
+    private final Sudoku sudoku;
+
+    private final int n, cells;
+
+    /**
+     * The bitmask of every value.
+     */
+    private final int all;
+
+    /**
+     * The row, column and box of each cell.
+     */
+    private final int[] cell_row, cell_column, cell_box;
+
+    /**
+     * The cells of each row, column and box.
+     */
+    private final int[][] units;
+
+    /**
+     * The grid being solved, and the values placed in each row, column and box.
+     */
+    private final byte[] grid;
+    private final int[] rows, columns, boxes;
+
+    /**
+     * The cells filled, in order, so that placements can be undone.
+     */
+    private final int[] trail;
+    private int trail_size;
+
+    private @Nullable byte[] solution;
+    private long solutions, limit;
+
+    private long puzzles = 0, guesses = 0, singles = 0;
+
+    /**
+     * @param sudoku The problem whose puzzles are solved.
+     */
+    public SudokuSolver(@NotNull Sudoku sudoku) {
+        this.sudoku = sudoku;
+        this.n = sudoku.n;
+        this.cells = n * n;
+        this.all = (1 << n) - 1;
+
+        final int sqrt_n = (int) Math.sqrt((double) n);
+        this.cell_row = new int[cells];
+        this.cell_column = new int[cells];
+        this.cell_box = new int[cells];
+        this.units = new int[3 * n][n];
+        for (int cell = 0; cell < cells; cell++) {
+            final int i = cell / n, j = cell % n, box = (i / sqrt_n) * sqrt_n + j / sqrt_n;
+            this.cell_row[cell] = i;
+            this.cell_column[cell] = j;
+            this.cell_box[cell] = box;
+
+            this.units[i][j] = cell;
+            this.units[n + j][i] = cell;
+            this.units[2 * n + box][(i % sqrt_n) * sqrt_n + j % sqrt_n] = cell;
+        }
+
+        this.grid = new byte[cells];
+        this.rows = new int[n];
+        this.columns = new int[n];
+        this.boxes = new int[n];
+        this.trail = new int[cells];
+    }
+
+    /**
+     * Solve a puzzle in place.
+     *
+     * @param grid The puzzle, row by row, with 0 in empty cells. Filled with the solution, if any.
+     * @return True if the puzzle was solved, false if it has no solution.
+     */
+    public boolean solve(@NotNull byte[] grid) {
+        if (this.countSolutions(grid, 1) == 0) {
+            return false;
+        }
+
+        assert this.solution != null;
+        System.arraycopy(this.solution, 0, grid, 0, cells);
+        return true;
+    }
+
+    /**
+     * Solve the puzzle of a state.
+     *
+     * @param state The state, whose filled cells are kept.
+     * @return The solved state, or null if there is no solution.
+     */
+    public @Nullable Sudoku.SudokuState solve(@NotNull Sudoku.SudokuState state) {
+        final byte[] grid = state.grid.clone();
+        return this.solve(grid) ? sudoku.new SudokuState(grid, state.given_cells) : null;
+    }
+
+    /**
+     * Count the solutions of a puzzle, stopping at a limit (e.g. 2 to check that a solution is unique).
+     *
+     * @param grid The puzzle, row by row, with 0 in empty cells. It is not changed.
+     * @param limit The maximum number of solutions to be found.
+     * @return The number of solutions, up to `limit`.
+     */
+    public long countSolutions(@NotNull byte[] grid, long limit) {
+        assert grid.length == cells && limit > 0;
+        this.puzzles++;
+        this.solution = null;
+        this.solutions = 0;
+        this.limit = limit;
+        this.trail_size = 0;
+        Arrays.fill(this.grid, (byte) 0);
+        Arrays.fill(this.rows, 0);
+        Arrays.fill(this.columns, 0);
+        Arrays.fill(this.boxes, 0);
+
+        for (int cell = 0; cell < cells; cell++) {
+            final int value = grid[cell];
+            if (value != 0 && !this.place(cell, 1 << (value - 1))) {
+                return 0;  // The clues clash.
+            }
+        }
+
+        this.search();
+        return this.solutions;
+    }
+
+    private int candidates(int cell) {
+        return this.all & ~(this.rows[this.cell_row[cell]] | this.columns[this.cell_column[cell]] | this.boxes[this.cell_box[cell]]);
+    }
+
+    /**
+     * @return False if the cell is filled, or the value is not a candidate.
+     */
+    private boolean place(int cell, int bit) {
+        if (this.grid[cell] != 0 || (this.candidates(cell) & bit) == 0) {
+            return false;
+        }
+
+        this.grid[cell] = (byte) (Integer.numberOfTrailingZeros(bit) + 1);
+        this.rows[this.cell_row[cell]] |= bit;
+        this.columns[this.cell_column[cell]] |= bit;
+        this.boxes[this.cell_box[cell]] |= bit;
+        this.trail[this.trail_size++] = cell;
+        return true;
+    }
+
+    /**
+     * Empty the cells filled after the trail had the given size.
+     */
+    private void undo(int trail_size) {
+        while (this.trail_size > trail_size) {
+            final int cell = this.trail[--this.trail_size];
+            final int mask = ~(1 << (this.grid[cell] - 1));
+            this.grid[cell] = 0;
+            this.rows[this.cell_row[cell]] &= mask;
+            this.columns[this.cell_column[cell]] &= mask;
+            this.boxes[this.cell_box[cell]] &= mask;
+        }
+    }
+
+    private void search() {
+        final int mark = this.trail_size;
+        final int cell = this.propagate();
+
+        if (cell == -1) {  // Every cell is filled.
+            if (this.solutions++ == 0) {
+                this.solution = this.grid.clone();
+            }
+        } else if (cell >= 0) {
+            int candidates = this.candidates(cell);
+            while (candidates != 0 && this.solutions < this.limit) {
+                final int bit = candidates & -candidates;
+                candidates ^= bit;
+
+                final int branch = this.trail_size;
+                this.guesses++;
+                this.place(cell, bit);
+                this.search();
+                this.undo(branch);
+            }
+        }
+
+        this.undo(mark);
+    }
+
+    /**
+     * Place naked and hidden singles, until none is left.
+     *
+     * @return The empty cell with the fewest candidates, -1 if the grid is full, -2 on a contradiction.
+     */
+    private int propagate() {
+        boolean progress;
+        int best;
+
+        do {
+            progress = false;
+            best = -1;
+            int best_count = Integer.MAX_VALUE;
+
+            // Naked singles.
+            for (int cell = 0; cell < cells; cell++) {
+                if (this.grid[cell] != 0) {
+                    continue;
+                }
+
+                final int candidates = this.candidates(cell);
+                final int count = Integer.bitCount(candidates);
+                if (count == 0) {
+                    return -2;
+                } else if (count == 1) {
+                    this.place(cell, candidates);
+                    this.singles++;
+                    progress = true;
+                } else if (count < best_count) {
+                    best = cell;
+                    best_count = count;
+                }
+            }
+
+            if (best == -1 || progress) {
+                continue;
+            }
+
+            // Hidden singles: values that are candidates of exactly a cell of a unit.
+            for (int[] unit : this.units) {
+                int once = 0, twice = 0, placed = 0;
+                for (int cell : unit) {
+                    if (this.grid[cell] != 0) {
+                        placed |= 1 << (this.grid[cell] - 1);
+                    } else {
+                        final int candidates = this.candidates(cell);
+                        twice |= once & candidates;
+                        once |= candidates;
+                    }
+                }
+
+                if ((once | placed) != this.all) {
+                    return -2;  // A value fits nowhere.
+                }
+
+                int singles = once & ~twice;
+                while (singles != 0) {
+                    final int bit = singles & -singles;
+                    singles ^= bit;
+
+                    // The cell may have been taken by another single of the unit: the next round finds out.
+                    for (int cell : unit) {
+                        if (this.grid[cell] == 0 && (this.candidates(cell) & bit) != 0) {
+                            this.place(cell, bit);
+                            this.singles++;
+                            break;
+                        }
+                    }
+
+                    progress = true;
+                }
+            }
+        } while (progress);
+
+        return best;
+    }
+
+    public @NotNull String statsToString() {
+        return String.format("Puzzles: %d, singles placed: %d, guesses: %d.\n", this.puzzles, this.singles, this.guesses);
+    }
+}
@@ -0,0 +1,21 @@
+package agents.csp;
+
+import junit.framework.TestCase;
+import problems.NQueens;
+
+import java.io.InvalidClassException;
+
+public class NQueensCounterAgentTest extends TestCase {
+
+    /**
+     * The number of solutions with 1, 2, ... queens.
+     */
+    private static final long[] SOLUTIONS = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724, 2680, 14200, 73712};
+
+    public void testCountSolutions() throws InvalidClassException {
+        for (int n = 1; n <= SOLUTIONS.length; n++) {
+            final NQueensCounterAgent agent = new NQueensCounterAgent(new NQueens("test_counter", n), 2);
+            assertEquals(SOLUTIONS[n - 1], agent.countSolutions());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package agents.finite_states;
+
+import agents.frontiers.FIFO;
+import agents.frontiers.HandleFIFO;
+import agents.frontiers.HandleMinHeap;
+import agents.frontiers.MinHeap;
+import junit.framework.TestCase;
+import problems.CachedHeuristic;
+import problems.KSquaredPuzzle;
+
+public class ArenaGoalBasedAgentTest extends TestCase {
+
+    public void testSameLengthAsObjectNodes() throws Exception {
+        for (long seed = 0; seed < 5; seed++) {
+            final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, seed, 20);
+            final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+            assertEquals(optimal, puzzle.solve(new ArenaGoalBasedAgent(puzzle, HandleFIFO.class)).size());
+
+            final UtilityBasedAgent a_star = new UtilityBasedAgent(puzzle, MinHeap.class);
+            a_star.cost_to_node = true;
+            final ArenaUtilityBasedAgent arena_a_star = new ArenaUtilityBasedAgent(puzzle, HandleMinHeap.class);
+            arena_a_star.cost_to_node = true;
+
+            assertEquals(optimal, puzzle.solve(a_star).size());
+            assertEquals(optimal, puzzle.solve(arena_a_star).size());
+        }
+    }
+
+    public void testReplacedHeuristic() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 1, 20);
+
+        final UtilityBasedAgent a_star = new UtilityBasedAgent(puzzle, MinHeap.class);
+        a_star.cost_to_node = true;
+        final ArenaUtilityBasedAgent arena_a_star = new ArenaUtilityBasedAgent(puzzle, HandleMinHeap.class);
+        arena_a_star.cost_to_node = true;
+
+        final CachedHeuristic<KSquaredPuzzle.KSquaredState> cache =
+                new CachedHeuristic<>(puzzle, 1 << 16, CachedHeuristic.Policy.CLOCK);
+        arena_a_star.setHeuristic(KSquaredPuzzle.KSquaredState.class, cache);
+
+        assertEquals(puzzle.solve(a_star).size(), puzzle.solve(arena_a_star).size());
+        assertTrue(cache.getMisses() > 0);
+    }
+}
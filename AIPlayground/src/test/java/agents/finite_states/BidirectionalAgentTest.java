@@ -0,0 +1,28 @@
+package agents.finite_states;
+
+import agents.frontiers.FIFO;
+import exceptions.UnsolvableProblem;
+import junit.framework.TestCase;
+
+public class BidirectionalAgentTest extends TestCase {
+
+    public void testOptimalSolution() throws Exception {
+        // Walks of both parities, so that the searches meet on either side.
+        for (int depth = 0; depth < 30; depth += 3) {
+            final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, depth, depth);
+            final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+
+            assertEquals(optimal, puzzle.solve(new BidirectionalAgent(puzzle)).size());
+        }
+    }
+
+    public void testUnsolvable() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(2, new int[]{2, 1, 3, 0});
+
+        try {
+            new BidirectionalAgent(puzzle).nextAction();
+            fail();
+        } catch (UnsolvableProblem ignored) {
+        }
+    }
+}
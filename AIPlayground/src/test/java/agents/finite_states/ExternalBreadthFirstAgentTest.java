@@ -0,0 +1,60 @@
+package agents.finite_states;
+
+import junit.framework.TestCase;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.KSquaredPuzzle;
+import problems.NQueens;
+
+import java.io.InvalidClassException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ExternalBreadthFirstAgentTest extends TestCase {
+
+    public final KSquaredPuzzle puzzle = new KSquaredPuzzle("test_puzzle", 3);
+
+    public void testDistanceHistogram() throws Exception {
+        final Path directory = Files.createTempDirectory("external-bfs");
+        final ExternalBreadthFirstAgent agent = new ExternalBreadthFirstAgent(puzzle, directory);
+        agent.run_size = 1 << 12;  // Many runs per layer,
+        agent.max_fan_in = 2;  // merged in several passes.
+
+        final List<Long> histogram = agent.distanceHistogram(puzzle.getGoalStates().iterator().next());
+        long states = 0;
+        for (long size : histogram) {
+            states += size;
+        }
+
+        assertEquals(181440, states);  // 9! / 2
+        assertEquals(32, histogram.size());  // The diameter is 31.
+        assertEquals(2L, (long) histogram.get(31));
+        Files.delete(directory);
+    }
+
+    public void testSolution() throws Exception {
+        final Path directory = Files.createTempDirectory("external-bfs");
+        final ExternalBreadthFirstAgent agent = new ExternalBreadthFirstAgent(puzzle, directory);
+        agent.run_size = 1 << 12;
+
+        State state = agent.initial_state;
+        Action action;
+        while ((action = agent.nextAction()) != null) {
+            state = state.performAction(action);
+        }
+
+        assertTrue(puzzle.isGoal(state));
+        Files.delete(directory);
+    }
+
+    public void testIrreversibleRejected() throws Exception {
+        final Path directory = Files.createTempDirectory("external-bfs");
+        try {
+            new ExternalBreadthFirstAgent(new NQueens("test_queens", 8), directory);
+            fail();
+        } catch (InvalidClassException ignored) {
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,66 @@
+package agents.finite_states;
+
+import exceptions.RuntimeException;
+import exceptions.UnsolvableProblem;
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Action;
+import problem_elements.State;
+import problems.KSquaredGenerator;
+import problems.KSquaredPuzzle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A `KSquaredPuzzle` always starting from the same instance, so that agents can be compared.
+ */
+class FixedKSquaredPuzzle extends KSquaredPuzzle {
+
+    private final KSquaredState start;
+
+    /**
+     * @param k The dimension of the puzzle.
+     * @param seed The seed of the random walk leading to the instance.
+     * @param depth The length of the random walk leading to the instance.
+     */
+    FixedKSquaredPuzzle(int k, long seed, int depth) {
+        super("test_fixed_puzzle", k);
+        this.start = new KSquaredGenerator(this, seed).nextRandomWalk(depth);
+    }
+
+    /**
+     * @param k The dimension of the puzzle.
+     * @param cells The cells of the instance, possibly unsolvable.
+     */
+    FixedKSquaredPuzzle(int k, @NotNull int[] cells) {
+        super("test_fixed_puzzle", k);
+        this.start = new KSquaredState(cells);
+    }
+
+    @Override
+    public @NotNull State buildRandomState() {
+        return this.start.copy();
+    }
+
+    /**
+     * Collect the actions of an agent, checking that they lead to the goal.
+     *
+     * @return The solution.
+     */
+    @NotNull List<Action> solve(@NotNull FiniteStateAgent agent) throws UnsolvableProblem, RuntimeException {
+        final List<Action> solution = new ArrayList<>();
+        State state = agent.initial_state;
+
+        Action action;
+        while ((action = agent.nextAction()) != null) {
+            solution.add(action);
+            state = state.performAction(action);
+        }
+
+        if (!this.isGoal(state)) {
+            throw new AssertionError("The actions do not lead to the goal.");
+        }
+
+        return solution;
+    }
+}
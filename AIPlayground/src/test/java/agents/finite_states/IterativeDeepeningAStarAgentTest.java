@@ -0,0 +1,46 @@
+package agents.finite_states;
+
+import agents.frontiers.FIFO;
+import agents.frontiers.MinHeap;
+import junit.framework.TestCase;
+
+public class IterativeDeepeningAStarAgentTest extends TestCase {
+
+    public void testOptimalSolution() throws Exception {
+        for (long seed = 0; seed < 5; seed++) {
+            final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, seed, 24);
+
+            final UtilityBasedAgent a_star = new UtilityBasedAgent(puzzle, MinHeap.class);
+            a_star.cost_to_node = true;
+            final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+
+            assertEquals(optimal, puzzle.solve(a_star).size());
+            assertEquals(optimal, puzzle.solve(new IterativeDeepeningAStarAgent(puzzle)).size());
+        }
+    }
+
+    public void testBoundsInStats() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 42, 24);
+        final IterativeDeepeningAStarAgent agent = new IterativeDeepeningAStarAgent(puzzle);
+        puzzle.solve(agent);
+
+        final String stats = agent.statsToString();
+        assertNotNull(stats);
+
+        int iterations = 0;
+        float last_bound = Float.NEGATIVE_INFINITY;
+        for (String line : stats.split("\n")) {
+            if (line.startsWith("Iteration ")) {
+                iterations++;
+                assertTrue(line.startsWith(String.format("Iteration %d, f-bound ", iterations)));
+
+                final float bound = Float.parseFloat(line.split("f-bound ")[1].split(":")[0].replace(',', '.'));
+                assertTrue(bound > last_bound);
+                last_bound = bound;
+            }
+        }
+
+        assertTrue(iterations > 0);
+        assertTrue(stats.contains(String.format("Number of iterations: %d.\n", iterations)));
+    }
+}
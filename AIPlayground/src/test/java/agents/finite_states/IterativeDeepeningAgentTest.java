@@ -0,0 +1,49 @@
+package agents.finite_states;
+
+import agents.frontiers.FIFO;
+import exceptions.UnsolvableProblem;
+import junit.framework.TestCase;
+
+public class IterativeDeepeningAgentTest extends TestCase {
+
+    public void testSolvable() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 7, 12);
+        final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+
+        final IterativeDeepeningAgent agent = new IterativeDeepeningAgent(puzzle);
+        assertEquals(optimal, puzzle.solve(agent).size());
+
+        final String stats = agent.statsToString();
+        assertNotNull(stats);
+        assertTrue(stats.contains(String.format("Depth %d:", optimal)));
+        assertFalse(stats.contains(String.format("Depth %d:", optimal + 1)));
+    }
+
+    public void testCutOff() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 7, 12);
+        final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+
+        // The solution is one level deeper than the deepest tree explored.
+        final IterativeDeepeningAgent agent = new IterativeDeepeningAgent(puzzle);
+        agent.max_depth_increase = optimal;
+        try {
+            agent.nextAction();
+            fail();
+        } catch (UnsolvableProblem e) {
+            assertTrue(e.getMessage().contains("selected depth range"));
+        }
+    }
+
+    public void testUnsolvable() throws Exception {
+        // Two tiles swapped: the goal is not reachable, and the paths without cycles are finite.
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(2, new int[]{2, 1, 3, 0});
+
+        final IterativeDeepeningAgent agent = new IterativeDeepeningAgent(puzzle);
+        try {
+            agent.nextAction();
+            fail();
+        } catch (UnsolvableProblem e) {
+            assertTrue(e.getMessage().contains("no way"));
+        }
+    }
+}
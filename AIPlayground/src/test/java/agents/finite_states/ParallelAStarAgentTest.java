@@ -0,0 +1,69 @@
+package agents.finite_states;
+
+import agents.frontiers.BucketHeap;
+import agents.frontiers.FIFO;
+import agents.frontiers.LIFO;
+import agents.frontiers.MinHeap;
+import junit.framework.TestCase;
+import problems.CachedHeuristic;
+import problems.Heuristic;
+import problems.KSquaredPuzzle;
+import problems.NQueens;
+
+import java.io.InvalidClassException;
+
+public class ParallelAStarAgentTest extends TestCase {
+
+    public void testOptimalSolution() throws Exception {
+        for (long seed = 0; seed < 5; seed++) {
+            final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, seed, 30);
+
+            final UtilityBasedAgent a_star = new UtilityBasedAgent(puzzle, MinHeap.class);
+            a_star.cost_to_node = true;
+            final int optimal = puzzle.solve(a_star).size();
+
+            for (int threads : new int[]{1, 4}) {
+                assertEquals(optimal, puzzle.solve(new ParallelAStarAgent(puzzle, MinHeap.class, threads)).size());
+                assertEquals(optimal, puzzle.solve(new ParallelAStarAgent(puzzle, BucketHeap.class, threads)).size());
+            }
+        }
+    }
+
+    public void testQueueFrontiersRejected() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 0, 10);
+
+        try {
+            new ParallelAStarAgent(puzzle, FIFO.class, 2);
+            fail();
+        } catch (InvalidClassException ignored) {
+        }
+
+        try {
+            new ParallelAStarAgent(puzzle, LIFO.class, 2);
+            fail();
+        } catch (InvalidClassException ignored) {
+        }
+    }
+
+    public void testHeuristicChecked() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, 0, 20);
+        final ParallelAStarAgent agent = new ParallelAStarAgent(puzzle, MinHeap.class, 2);
+
+        final Heuristic<NQueens.NQueensState> other = state -> 0;
+        try {
+            agent.setHeuristic(NQueens.NQueensState.class, other);
+            fail();
+        } catch (InvalidClassException ignored) {
+        }
+
+        final UtilityBasedAgent a_star = new UtilityBasedAgent(puzzle, MinHeap.class);
+        a_star.cost_to_node = true;
+        final CachedHeuristic<KSquaredPuzzle.KSquaredState> cache =
+                new CachedHeuristic<>(puzzle, 1024, CachedHeuristic.Policy.CLOCK);
+        agent.setHeuristic(KSquaredPuzzle.KSquaredState.class, cache);
+        assertEquals(0, cache.getMisses());  // Checking the heuristic does not evaluate it.
+
+        assertEquals(puzzle.solve(a_star).size(), puzzle.solve(agent).size());
+        assertTrue(cache.getHits() > 0);
+    }
+}
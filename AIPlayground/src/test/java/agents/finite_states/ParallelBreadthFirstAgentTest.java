@@ -0,0 +1,29 @@
+package agents.finite_states;
+
+import agents.frontiers.FIFO;
+import exceptions.UnsolvableProblem;
+import junit.framework.TestCase;
+
+public class ParallelBreadthFirstAgentTest extends TestCase {
+
+    public void testOptimalSolution() throws Exception {
+        // Deep walks make layers larger than the sequential threshold, so that tasks are split.
+        for (int depth = 0; depth < 30; depth += 5) {
+            final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(3, depth, depth);
+            final int optimal = puzzle.solve(new GoalBasedAgent(puzzle, FIFO.class)).size();
+
+            assertEquals(optimal, puzzle.solve(new ParallelBreadthFirstAgent(puzzle, 1)).size());
+            assertEquals(optimal, puzzle.solve(new ParallelBreadthFirstAgent(puzzle, 4)).size());
+        }
+    }
+
+    public void testUnsolvable() throws Exception {
+        final FixedKSquaredPuzzle puzzle = new FixedKSquaredPuzzle(2, new int[]{2, 1, 3, 0});
+
+        try {
+            new ParallelBreadthFirstAgent(puzzle, 2).nextAction();
+            fail();
+        } catch (UnsolvableProblem ignored) {
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package agents.finite_states;
+
+import junit.framework.TestCase;
+
+public class TranspositionTableTest extends TestCase {
+
+    public void testSeen() {
+        final TranspositionTable table = new TranspositionTable(1 << 12);
+        assertEquals((1 << 12) / TranspositionTable.ENTRY_BYTES, table.capacity());
+
+        assertFalse(table.seen(42, 3));
+        assertTrue(table.seen(42, 3));
+        assertTrue(table.seen(42, 5));
+        assertFalse(table.seen(42, 2));  // A cheaper path, the state has to be explored again.
+        assertTrue(table.seen(42, 2));
+
+        table.newIteration();
+        assertFalse(table.seen(42, 5));
+    }
+
+    public void testDepthPreferred() {
+        final TranspositionTable table = new TranspositionTable(TranspositionTable.ENTRY_BYTES * TranspositionTable.BUCKET_SIZE);
+
+        // A single bucket: fill it, then try to add a state with a higher cost.
+        for (int i = 1; i <= TranspositionTable.BUCKET_SIZE; i++) {
+            assertFalse(table.seen(i, i));
+        }
+        assertFalse(table.seen(100, 10));
+        assertFalse(table.seen(100, 10));  // Rejected, so not remembered.
+
+        // A cheaper state replaces the most expensive one.
+        assertFalse(table.seen(200, 0));
+        assertTrue(table.seen(200, 0));
+        assertFalse(table.seen(TranspositionTable.BUCKET_SIZE, TranspositionTable.BUCKET_SIZE));
+        assertTrue(table.seen(1, 1));
+    }
+}
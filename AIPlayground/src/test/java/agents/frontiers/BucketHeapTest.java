@@ -0,0 +1,71 @@
+package agents.frontiers;
+
+import junit.framework.TestCase;
+import problem_elements.Node;
+import problem_elements.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static agents.frontiers.FrontierNodes.nodeFor;
+
+public class BucketHeapTest extends TestCase {
+
+    public void testLastInFirstOutTies() {
+        final BucketHeap frontier = new BucketHeap();
+
+        frontier.add(nodeFor(1, 2));
+        frontier.add(nodeFor(2, 2));
+        frontier.add(nodeFor(3, 1));
+        frontier.add(nodeFor(1, 3));  // Ignored.
+
+        assertEquals(nodeFor(3, 0), frontier.pick());
+        assertEquals(nodeFor(2, 0), frontier.pick());
+        assertEquals(nodeFor(1, 0), frontier.pick());
+        assertNull(frontier.pick());
+    }
+
+    public void testFallBackKeepsNodes() {
+        final BucketHeap frontier = new BucketHeap();
+
+        frontier.add(nodeFor(1, 4));
+        frontier.add(nodeFor(2, 6));
+        frontier.add(nodeFor(2, 3));  // Decrease key, the old node becomes stale.
+        frontier.add(nodeFor(3, 3.5f));
+
+        assertEquals(3f, frontier.pick().weight);
+        assertEquals(3.5f, frontier.pick().weight);
+        assertEquals(4f, frontier.pick().weight);
+        assertNull(frontier.pick());
+    }
+
+    public void testAgainstReference() {
+        final Random random = new Random(42);
+        final BucketHeap frontier = new BucketHeap();
+        final HashMap<State, Float> reference = new HashMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(3) > 0) {
+                final Node node = nodeFor(random.nextInt(500), random.nextInt(100));
+                frontier.add(node);
+                reference.merge(node.state, node.weight, Math::min);
+            } else {
+                final Node node = frontier.pick();
+                if (reference.isEmpty()) {
+                    assertNull(node);
+                    continue;
+                }
+
+                assertNotNull(node);
+                float min = Float.MAX_VALUE;
+                for (Map.Entry<State, Float> entry : reference.entrySet()) {
+                    min = Math.min(min, entry.getValue());
+                }
+
+                assertEquals(min, node.weight);
+                assertEquals(Float.valueOf(node.weight), reference.remove(node.state));
+            }
+        }
+    }
+}
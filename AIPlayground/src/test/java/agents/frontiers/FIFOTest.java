@@ -0,0 +1,49 @@
+package agents.frontiers;
+
+import junit.framework.TestCase;
+import problem_elements.Node;
+
+import static agents.frontiers.FrontierNodes.nodeFor;
+
+public class FIFOTest extends TestCase {
+
+    public void testOrderAcrossGrowth() {
+        final FIFO frontier = new FIFO();
+
+        // Interleave adds and picks, so that the buffer wraps before growing.
+        int next_in = 0;
+        int next_out = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 7; i++) {
+                frontier.add(nodeFor(next_in++));
+            }
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(nodeFor(next_out++), frontier.pick());
+            }
+        }
+
+        Node node;
+        while ((node = frontier.pick()) != null) {
+            assertEquals(nodeFor(next_out++), node);
+        }
+
+        assertEquals(next_in, next_out);
+    }
+
+    public void testIgnoreContainedStates() {
+        final FIFO frontier = new FIFO();
+
+        frontier.add(nodeFor(1));
+        frontier.add(nodeFor(2));
+        frontier.add(nodeFor(1));
+
+        assertEquals(nodeFor(1), frontier.pick());
+        assertEquals(nodeFor(2), frontier.pick());
+        assertNull(frontier.pick());
+
+        // Once picked, a state can be added again.
+        frontier.add(nodeFor(1));
+        assertEquals(nodeFor(1), frontier.pick());
+    }
+}
@@ -0,0 +1,41 @@
+package agents.frontiers;
+
+import org.jetbrains.annotations.NotNull;
+import problem_elements.Node;
+import problem_elements.State;
+import problems.NQueens;
+
+/**
+ * Distinct states, and nodes holding them, built from small ints: the fixture shared by the frontier tests.
+ */
+final class FrontierNodes {
+
+    /**
+     * Each queen takes 2 bits of the value, so that values up to 4^N give distinct states.
+     */
+    static final int N = 6;
+
+    private static final NQueens queens_problem = new NQueens("test_frontiers", N);
+
+    private FrontierNodes() {
+    }
+
+    static @NotNull State stateFor(int value) {
+        final int[] positions = new int[N];
+        for (int i = 0; i < N; i++) {
+            positions[i] = (value >> (i * 2)) & 3;
+        }
+
+        return queens_problem.new NQueensState(positions);
+    }
+
+    static @NotNull Node nodeFor(int value) {
+        return new Node(stateFor(value));
+    }
+
+    static @NotNull Node nodeFor(int value, float weight) {
+        final Node node = nodeFor(value);
+        node.weight = weight;
+        return node;
+    }
+}
@@ -0,0 +1,94 @@
+package agents.frontiers;
+
+import junit.framework.TestCase;
+import problem_elements.NodeArena;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static agents.frontiers.FrontierNodes.stateFor;
+
+public class HandleFrontiersTest extends TestCase {
+
+    private final NodeArena arena = new NodeArena();
+
+    /**
+     * @return The handle of a new node, whose state is given by the value.
+     */
+    private int nodeFor(int value) {
+        return arena.root(stateFor(value));
+    }
+
+    public void testFIFOOrderAcrossGrowth() {
+        final HandleFIFO frontier = new HandleFIFO(arena);
+
+        // Interleave adds and picks, so that the buffer wraps before growing.
+        int next_out = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 7; i++) {
+                frontier.add(nodeFor(arena.size()), 0);
+            }
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(next_out++, frontier.pick());
+            }
+        }
+
+        int node;
+        while ((node = frontier.pick()) != HandleFrontier.EMPTY) {
+            assertEquals(next_out++, node);
+        }
+        assertEquals(arena.size(), next_out);
+    }
+
+    public void testLIFOIgnoresDuplicates() {
+        final HandleLIFO frontier = new HandleLIFO(arena);
+
+        final int first = nodeFor(1), second = nodeFor(2);
+        frontier.add(first, 0);
+        frontier.add(second, 0);
+        frontier.add(nodeFor(1), 0);  // Ignored.
+
+        assertEquals(second, frontier.pick());
+        assertEquals(first, frontier.pick());
+        assertEquals(HandleFrontier.EMPTY, frontier.pick());
+
+        frontier.add(first, 0);  // Picked states can be added again.
+        frontier.clear();
+        assertEquals(HandleFrontier.EMPTY, frontier.pick());
+    }
+
+    public void testMinHeapAgainstReference() {
+        final Random random = new Random(42);
+        final HandleMinHeap frontier = new HandleMinHeap(arena);
+        final HashMap<Integer, Float> reference = new HashMap<>();
+        final HashMap<Integer, Integer> values = new HashMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(3) > 0) {
+                final int value = random.nextInt(500);
+                final float weight = random.nextInt(1000);
+                final int node = nodeFor(value);
+                values.put(node, value);
+
+                frontier.add(node, weight);
+                reference.merge(value, weight, Math::min);
+            } else {
+                final int node = frontier.pick();
+                if (reference.isEmpty()) {
+                    assertEquals(HandleFrontier.EMPTY, node);
+                    continue;
+                }
+
+                assertTrue(node != HandleFrontier.EMPTY);
+                float min = Float.MAX_VALUE;
+                for (Map.Entry<Integer, Float> entry : reference.entrySet()) {
+                    min = Math.min(min, entry.getValue());
+                }
+
+                assertEquals(min, reference.remove(values.get(node)));
+            }
+        }
+    }
+}
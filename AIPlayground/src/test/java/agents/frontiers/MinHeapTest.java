@@ -0,0 +1,62 @@
+package agents.frontiers;
+
+import junit.framework.TestCase;
+import problem_elements.Node;
+import problem_elements.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static agents.frontiers.FrontierNodes.nodeFor;
+
+public class MinHeapTest extends TestCase {
+
+    public void testKeepCheaperDuplicate() {
+        final MinHeap frontier = new MinHeap();
+
+        frontier.add(nodeFor(1, 5));
+        frontier.add(nodeFor(2, 3));
+        frontier.add(nodeFor(1, 1));  // Decrease key.
+        frontier.add(nodeFor(2, 4));  // Ignored.
+
+        Node node = frontier.pick();
+        assertEquals(nodeFor(1, 0), node);
+        assertEquals(1f, node.weight);
+
+        node = frontier.pick();
+        assertEquals(nodeFor(2, 0), node);
+        assertEquals(3f, node.weight);
+
+        assertNull(frontier.pick());
+    }
+
+    public void testAgainstReference() {
+        final Random random = new Random(42);
+        final MinHeap frontier = new MinHeap();
+        final HashMap<State, Float> reference = new HashMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(3) > 0) {
+                final Node node = nodeFor(random.nextInt(500), random.nextInt(1000));
+                frontier.add(node);
+                reference.merge(node.state, node.weight, Math::min);
+            } else {
+                final Node node = frontier.pick();
+                if (reference.isEmpty()) {
+                    assertNull(node);
+                    continue;
+                }
+
+                assertNotNull(node);
+                float min = Float.MAX_VALUE;
+                for (Map.Entry<State, Float> entry : reference.entrySet()) {
+                    min = Math.min(min, entry.getValue());
+                }
+
+                assertEquals(min, node.weight);
+                assertEquals(Float.valueOf(node.weight), reference.remove(node.state));
+            }
+        }
+    }
+}
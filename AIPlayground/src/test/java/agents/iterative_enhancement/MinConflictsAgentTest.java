@@ -0,0 +1,50 @@
+package agents.iterative_enhancement;
+
+import agents.finite_states.GoalBasedAgent;
+import agents.frontiers.FIFO;
+import exceptions.UnsolvableProblem;
+import junit.framework.TestCase;
+import problems.NQueens;
+
+import java.io.InvalidClassException;
+
+public class MinConflictsAgentTest extends TestCase {
+
+    public void testSolutions() throws InvalidClassException, UnsolvableProblem {
+        for (int n : new int[]{1, 4, 6, 8, 100, 100000}) {
+            final NQueens problem = new NQueens("test_min_conflicts", n);
+            final MinConflictsAgent agent = new MinConflictsAgent(problem);
+            agent.seed = n;
+
+            assertTrue(problem.isGoal(agent.findSolution()));
+        }
+    }
+
+    public void testUnsolvable() throws InvalidClassException {
+        final MinConflictsAgent agent = new MinConflictsAgent(new NQueens("test_min_conflicts", 3));
+
+        try {
+            agent.findSolution();
+            fail();
+        } catch (UnsolvableProblem ignored) {
+        }
+    }
+
+    public void testActionsNotEnumerable() throws InvalidClassException {
+        // Only agents moving the queens by themselves accept boards whose actions can't be enumerated.
+        final NQueens problem = new NQueens("test_min_conflicts", 100000);
+        assertFalse(problem.canEnumerateActions());
+
+        try {
+            new HillClimberAgent(problem);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        try {
+            new GoalBasedAgent(problem, FIFO.class);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
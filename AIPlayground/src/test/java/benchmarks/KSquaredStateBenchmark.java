@@ -0,0 +1,63 @@
+package benchmarks;
+
+import problem_elements.Action;
+import problem_elements.State;
+import problems.KSquaredGenerator;
+import problems.KSquaredPuzzle;
+import problems.PackedKSquaredPuzzle;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Compare the throughput of the array and packed forms of the `KSquaredPuzzle` states.
+ * Each round walks randomly through the states, generating every successor and probing a set with it.
+ *
+ * Run with: `java -cp target/classes:target/test-classes:<dependencies> benchmarks.KSquaredStateBenchmark`.
+ */
+public class KSquaredStateBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int STEPS = 2_000_000;
+
+    public static void main(String[] args) {
+        final PackedKSquaredPuzzle packed = new PackedKSquaredPuzzle("benchmark", 4);
+        final KSquaredPuzzle.KSquaredState start = new KSquaredGenerator(packed.puzzle, 42).nextSolvable();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final double array = run(start);
+            final double packed_rate = run(packed.pack(start));
+            System.out.printf("Round %d: array %.1f M successors/s, packed %.1f M successors/s (%.2fx).%n",
+                    round, array, packed_rate, packed_rate / array);
+        }
+    }
+
+    /**
+     * @return Millions of successors per second.
+     */
+    private static double run(State start) {
+        final HashSet<State> seen = new HashSet<>();
+        long successors = 0;
+        long seed = 42;
+
+        final long begin = System.nanoTime();
+        State state = start;
+        for (int i = 0; i < STEPS; i++) {
+            final List<Action> actions = (List<Action>) state.getActions();
+            for (Action a : actions) {
+                final State child = state.performAction(a);
+                if (seen.size() < 1 << 16) {
+                    seen.add(child);
+                } else {
+                    seen.contains(child);
+                }
+
+                successors++;
+            }
+
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            state = state.performAction(actions.get((int) ((seed >>> 33) % actions.size())));
+        }
+
+        return successors / ((System.nanoTime() - begin) / 1e3);
+    }
+}
@@ -0,0 +1,25 @@
+package benchmarks;
+
+import agents.csp.NQueensCounterAgent;
+import problems.NQueens;
+
+import java.io.InvalidClassException;
+
+/**
+ * Count the solutions of the NQueens problem for growing boards, reporting the nodes visited per second.
+ * The largest board is the first argument (16 by default), the number of threads the second one.
+ *
+ * Run with: `java -cp target/classes:target/test-classes:<dependencies> benchmarks.NQueensCountBenchmark 20`.
+ */
+public class NQueensCountBenchmark {
+    public static void main(String[] args) throws InvalidClassException {
+        final int max_n = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        final int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        for (int n = 4; n <= max_n; n++) {
+            final NQueensCounterAgent agent = new NQueensCounterAgent(new NQueens("benchmark", n), parallelism);
+            final long solutions = agent.countSolutions();
+            System.out.printf("n = %d: %d solutions.%n%s", n, solutions, agent.statsToString());
+        }
+    }
+}
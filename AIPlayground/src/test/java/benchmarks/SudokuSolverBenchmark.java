@@ -0,0 +1,69 @@
+package benchmarks;
+
+import problems.Sudoku;
+import problems.SudokuSolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measure the puzzles solved per second by the `SudokuSolver`, on a single thread.
+ * The corpus is a file with a 9x9 puzzle per line (81 digits, '0' or '.' for empty cells),
+ * given as first argument; a few puzzles of growing difficulty are used otherwise.
+ *
+ * Run with: `java -cp target/classes:target/test-classes:<dependencies> benchmarks.SudokuSolverBenchmark [corpus]`.
+ */
+public class SudokuSolverBenchmark {
+    private static final int ROUNDS = 5;
+    private static final long MINIMUM_TIME = 2_000_000_000L;
+
+    private static final List<String> PUZZLES = Arrays.asList(
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..",
+            "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......",
+            "52...6.........7.13...........4..8..6......5...........418.........3..2...87.....",
+            "6.....8.3.4.7.................5.4.7.3..2.....1.6.......2.....5.....8.6......1....",
+            "48.3............71.2.......7.5....6....2..8.............1.76...3.....4......5....",
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4.."
+    );
+
+    public static void main(String[] args) throws IOException {
+        final List<String> lines = args.length > 0 ?
+                Files.lines(Paths.get(args[0])).map(String::trim).filter(l -> l.length() >= 81).collect(Collectors.toList()) :
+                PUZZLES;
+
+        final byte[][] puzzles = new byte[lines.size()][81];
+        for (int p = 0; p < puzzles.length; p++) {
+            for (int i = 0; i < 81; i++) {
+                final char c = lines.get(p).charAt(i);
+                puzzles[p][i] = (byte) (c >= '1' && c <= '9' ? c - '0' : 0);
+            }
+        }
+
+        final SudokuSolver solver = new SudokuSolver(new Sudoku("benchmark", 9));
+        final byte[] grid = new byte[81];
+        for (int round = 0; round < ROUNDS; round++) {
+            long solved = 0, unsolved = 0;
+            final long begin = System.nanoTime();
+            while (System.nanoTime() - begin < MINIMUM_TIME) {
+                for (byte[] puzzle : puzzles) {
+                    System.arraycopy(puzzle, 0, grid, 0, 81);
+                    if (solver.solve(grid)) {
+                        solved++;
+                    } else {
+                        unsolved++;
+                    }
+                }
+            }
+
+            final double seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("Round %d: %.0f puzzles/s (%d solved, %d unsolvable).%n",
+                    round, (solved + unsolved) / seconds, solved, unsolved);
+        }
+
+        System.out.print(solver.statsToString());
+    }
+}
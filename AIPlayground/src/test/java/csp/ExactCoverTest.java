@@ -0,0 +1,50 @@
+package csp;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class ExactCoverTest extends TestCase {
+
+    /**
+     * Knuth's example: rows 0, 3 and 4 are the only solution.
+     */
+    private static ExactCover example() {
+        final ExactCover cover = new ExactCover(7);
+        cover.addRow(2, 4, 5);
+        cover.addRow(0, 3, 6);
+        cover.addRow(1, 2, 5);
+        cover.addRow(0, 3);
+        cover.addRow(1, 6);
+        cover.addRow(3, 4, 6);
+        return cover;
+    }
+
+    public void testSolve() {
+        final ExactCover cover = example();
+
+        final int[] solution = cover.solve();
+        assertNotNull(solution);
+        Arrays.sort(solution);
+        assertTrue(Arrays.equals(new int[]{0, 3, 4}, solution));
+
+        // The links are restored, the search can run again.
+        assertEquals(1, cover.countSolutions(10));
+    }
+
+    public void testSelect() {
+        ExactCover cover = example();
+        cover.select(3);
+        assertEquals(1, cover.countSolutions(10));
+        assertEquals(3, cover.getSolution()[0]);
+
+        cover = example();
+        cover.select(1);
+        assertNull(cover.solve());
+
+        cover = example();
+        cover.select(3);
+        cover.select(5);  // Both cover columns 3.
+        assertEquals(0, cover.countSolutions(10));
+    }
+}
@@ -0,0 +1,82 @@
+package problem_elements;
+
+import junit.framework.TestCase;
+import problems.KSquaredPuzzle;
+import problems.NQueens;
+import problems.PackedKSquaredPuzzle;
+import problems.Sudoku;
+
+import java.util.Random;
+
+public class MutableStateTest extends TestCase {
+
+    public final static String PROBLEM_TEST_NAME = "test_mutable_state";
+
+    private final Random random = new Random(42);
+
+    /**
+     * Along a random walk, apply and undo every action of each state, in place,
+     * checking it against `performAction` and the state it started from.
+     */
+    private void checkRoundTrips(State state, int steps) {
+        final MutableState mutable = (MutableState) state;
+
+        for (int step = 0; step < steps; step++) {
+            final State before = mutable.copy();
+
+            int count = 0;
+            for (Action a : state.getActions()) {
+                final State expected = before.performAction(a);
+
+                final int token = mutable.apply(a);
+                assertEquals(expected, state);
+                assertEquals(expected.hashCode(), state.hashCode());
+                if (state instanceof LongHashable) {
+                    assertEquals(((LongHashable) expected).longHashCode(), ((LongHashable) state).longHashCode());
+                }
+
+                mutable.undo(a, token);
+                assertEquals(before, state);
+                assertEquals(before.hashCode(), state.hashCode());
+                if (state instanceof LongHashable) {
+                    assertEquals(((LongHashable) before).longHashCode(), ((LongHashable) state).longHashCode());
+                }
+
+                count++;
+            }
+
+            if (count == 0) {
+                return;
+            }
+
+            // Move on, through a random action.
+            int chosen = random.nextInt(count);
+            for (Action a : state.getActions()) {
+                if (chosen-- == 0) {
+                    mutable.apply(a);
+                    break;
+                }
+            }
+        }
+    }
+
+    public void testKSquaredState() {
+        final KSquaredPuzzle puzzle = new KSquaredPuzzle(PROBLEM_TEST_NAME, 4);
+        checkRoundTrips(puzzle.buildRandomState(), 100);
+    }
+
+    public void testPackedState() {
+        final PackedKSquaredPuzzle packed = new PackedKSquaredPuzzle(PROBLEM_TEST_NAME, 4);
+        checkRoundTrips(packed.buildRandomState(), 100);
+    }
+
+    public void testNQueensState() {
+        final NQueens queens = new NQueens(PROBLEM_TEST_NAME, 8);
+        checkRoundTrips(queens.buildRandomState(), 20);
+    }
+
+    public void testSudokuState() {
+        final Sudoku sudoku = new Sudoku(PROBLEM_TEST_NAME, 4);
+        checkRoundTrips(sudoku.new SudokuState(new byte[16], new boolean[16]), 20);
+    }
+}
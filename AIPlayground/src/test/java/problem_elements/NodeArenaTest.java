@@ -0,0 +1,58 @@
+package problem_elements;
+
+import junit.framework.TestCase;
+import problems.KSquaredPuzzle;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class NodeArenaTest extends TestCase {
+
+    public final static String PROBLEM_TEST_NAME = "test_node_arena";
+    public final KSquaredPuzzle puzzle = new KSquaredPuzzle(PROBLEM_TEST_NAME, 3);
+
+    public void testPathTo() {
+        final NodeArena arena = new NodeArena();
+        final State goal = puzzle.new KSquaredState(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 0});
+
+        final int root = arena.root(goal);
+        assertEquals(NodeArena.NONE, arena.parent(root));
+        assertNull(arena.arrivingAction(root));
+        assertEquals(0, arena.depth(root));
+        assertEquals(Collections.emptyList(), arena.pathTo(root));
+
+        // A branch, then the path: the nodes of the branch must not appear in the path.
+        final State up = goal.performAction(KSquaredPuzzle.UP);
+        final int sibling = arena.child(goal.performAction(KSquaredPuzzle.LEFT), root, KSquaredPuzzle.LEFT);
+        final int first = arena.child(up, root, KSquaredPuzzle.UP);
+        final int second = arena.child(up.performAction(KSquaredPuzzle.LEFT), first, KSquaredPuzzle.LEFT);
+
+        assertEquals(up, arena.state(first));
+        assertEquals(first, arena.parent(second));
+        assertSame(KSquaredPuzzle.LEFT, arena.arrivingAction(second));
+        assertEquals(2, arena.depth(second));
+        assertEquals(KSquaredPuzzle.UP.cost + KSquaredPuzzle.LEFT.cost, arena.pathCost(second));
+        assertEquals(Collections.singletonList(KSquaredPuzzle.LEFT), arena.pathTo(sibling));
+        assertEquals(Arrays.asList(KSquaredPuzzle.UP, KSquaredPuzzle.LEFT), arena.pathTo(second));
+    }
+
+    public void testGrowthAndClear() {
+        final NodeArena arena = new NodeArena();
+        final State state = puzzle.new KSquaredState(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 0});
+
+        // A chain longer than the initial capacity.
+        int node = arena.root(state);
+        for (int i = 1; i < 5000; i++) {
+            node = arena.child(state, node, i % 2 == 0 ? KSquaredPuzzle.UP : KSquaredPuzzle.DOWN);
+        }
+
+        assertEquals(5000, arena.size());
+        assertEquals(4999, arena.depth(node));
+        assertEquals(4999, arena.pathTo(node).size());
+        assertSame(KSquaredPuzzle.DOWN, arena.pathTo(node).get(0));
+
+        arena.clear();
+        assertEquals(0, arena.size());
+        assertEquals(0, arena.root(state));
+    }
+}
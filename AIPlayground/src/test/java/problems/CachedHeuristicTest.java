@@ -0,0 +1,47 @@
+package problems;
+
+import junit.framework.TestCase;
+import problem_elements.State;
+
+public class CachedHeuristicTest extends TestCase {
+
+    public final KSquaredPuzzle puzzle = new KSquaredPuzzle("test_puzzle", 3);
+
+    public void testHitsAndMisses() {
+        final CachedHeuristic<KSquaredPuzzle.KSquaredState> cache =
+                new CachedHeuristic<>(puzzle, 1024, CachedHeuristic.Policy.CLOCK);
+        final KSquaredPuzzle.KSquaredState state = (KSquaredPuzzle.KSquaredState) puzzle.buildRandomState();
+
+        assertEquals(puzzle.getHeuristicValue(state), cache.getHeuristicValue(state));
+        assertEquals(puzzle.getHeuristicValue(state), cache.getHeuristicValue(state));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    public void testBounded() {
+        for (CachedHeuristic.Policy policy : CachedHeuristic.Policy.values()) {
+            final CachedHeuristic<KSquaredPuzzle.KSquaredState> cache = new CachedHeuristic<>(puzzle, 64, policy);
+
+            for (int i = 0; i < 1000; i++) {
+                final State state = puzzle.buildRandomState();
+                assertEquals(puzzle.getHeuristicValue((KSquaredPuzzle.KSquaredState) state),
+                        cache.getHeuristicValue((KSquaredPuzzle.KSquaredState) state));
+            }
+
+            assertTrue(cache.size() <= 64);
+        }
+    }
+
+    public void testBoundedBelowSegments() {
+        for (int capacity : new int[]{1, 5, 15, 17, 20}) {
+            final CachedHeuristic<KSquaredPuzzle.KSquaredState> cache =
+                    new CachedHeuristic<>(puzzle, capacity, CachedHeuristic.Policy.CLOCK);
+
+            for (int i = 0; i < 200; i++) {
+                cache.getHeuristicValue((KSquaredPuzzle.KSquaredState) puzzle.buildRandomState());
+            }
+
+            assertEquals(capacity, cache.size());
+        }
+    }
+}
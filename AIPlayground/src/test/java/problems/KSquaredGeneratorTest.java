@@ -0,0 +1,45 @@
+package problems;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KSquaredGeneratorTest extends TestCase {
+
+    public final KSquaredPuzzle puzzle = new KSquaredPuzzle("test_puzzle", 4);
+
+    public void testInversions() {
+        assertEquals(0, puzzle.inversions(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 0}));
+        assertEquals(15, puzzle.inversions(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15}));
+        assertEquals(1, puzzle.inversions(new int[]{2, 1, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 0}));
+    }
+
+    public void testSolvable() {
+        final KSquaredGenerator generator = new KSquaredGenerator(puzzle, 42);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(puzzle.isSolvable(generator.nextSolvable()));
+            assertTrue(puzzle.isSolvable(generator.nextRandomWalk(i)));
+            assertTrue(puzzle.isSolvable((KSquaredPuzzle.KSquaredState) puzzle.buildRandomState()));
+        }
+
+        assertEquals(new KSquaredGenerator(puzzle, 7).nextSolvable(), new KSquaredGenerator(puzzle, 7).nextSolvable());
+    }
+
+    public void testStream() throws Exception {
+        final File file = File.createTempFile("instances", ".bin");
+        file.deleteOnExit();
+        new KSquaredGenerator(puzzle, 42).write(file.toPath(), 50, 20);
+
+        final List<KSquaredPuzzle.KSquaredState> instances = new ArrayList<>();
+        KSquaredGenerator.read(puzzle, file.toPath(), instances::add);
+
+        final KSquaredGenerator generator = new KSquaredGenerator(puzzle, 42);
+        assertEquals(50, instances.size());
+        for (KSquaredPuzzle.KSquaredState instance : instances) {
+            assertEquals(generator.nextRandomWalk(20), instance);
+        }
+    }
+}
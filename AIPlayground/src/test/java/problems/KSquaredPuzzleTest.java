@@ -7,6 +7,7 @@ import junitx.util.PrivateAccessor;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.List;
 
 public class KSquaredPuzzleTest extends TestCase {
 
@@ -50,6 +51,76 @@ public class KSquaredPuzzleTest extends TestCase {
         assertEquals(puzzle.getHeuristicValue(new_state), 3.0, 0.0);
     }
 
+    public void testHeuristicOffRowTile() {
+        // Tile 4 (goal row 0, column 3) and tile 7 (goal row 1, column 2) swapped: each one is 2 moves away.
+        final KSquaredPuzzle.KSquaredState state = puzzle.new KSquaredState(
+                new int[]{1, 2, 3, 7, 5, 6, 4, 8, 9, 10, 11, 12, 13, 14, 15, 0});
+        assertEquals(4f, puzzle.getHeuristicValue(state));
+
+        final PackedKSquaredPuzzle packed = new PackedKSquaredPuzzle(PUZZLE_TEST_NAME, k);
+        assertEquals(4f, packed.getHeuristicValue(packed.pack(state)));
+    }
+
+    public void testInverseActions() throws NoSuchFieldException {
+        final State goal_state = (State) PrivateAccessor.getField(puzzle, "goal");
+        assertTrue(puzzle.getGoalStates().iterator().next().equals(goal_state));
+
+        final State state = goal_state.performAction(KSquaredPuzzle.UP).performAction(KSquaredPuzzle.LEFT);
+        for (Action a : state.getActions()) {
+            assertEquals(state, state.performAction(a).performAction(puzzle.getInverseAction(a)));
+        }
+    }
+
+    public void testIncrementalHeuristic() {
+        KSquaredPuzzle.KSquaredState state = (KSquaredPuzzle.KSquaredState) puzzle.buildRandomState();
+        float value = puzzle.getHeuristicValue(state);
+
+        for (int i = 0; i < 100; i++) {
+            final List<Action> actions = state.getActions();
+            final Action a = actions.get(i % actions.size());
+
+            state = (KSquaredPuzzle.KSquaredState) state.performAction(a);
+            value = puzzle.getHeuristicValue(state, a, value);
+            assertEquals(puzzle.getHeuristicValue(state), value);
+        }
+    }
+
+    public void testZobristHash() {
+        KSquaredPuzzle.KSquaredState state = (KSquaredPuzzle.KSquaredState) puzzle.buildRandomState();
+
+        for (int i = 0; i < 100; i++) {
+            final List<Action> actions = state.getActions();
+            state = (KSquaredPuzzle.KSquaredState) state.performAction(actions.get(i % actions.size()));
+
+            final KSquaredPuzzle.KSquaredState rebuilt = puzzle.new KSquaredState(state.puzzle);
+            assertEquals(rebuilt.longHashCode(), state.longHashCode());
+            assertEquals(rebuilt.hashCode(), state.hashCode());
+        }
+    }
+
+    public void testLongEncoding() {
+        assertTrue(puzzle.isLongEncodable());
+        final Action[] packed_actions = puzzle.getPackedActions();
+        final long[] children = new long[puzzle.getMaxSuccessors()];
+        final int[] actions = new int[children.length];
+
+        for (int i = 0; i < 20; i++) {
+            final KSquaredPuzzle.KSquaredState state = (KSquaredPuzzle.KSquaredState) puzzle.buildRandomState();
+            final long code = puzzle.encode(state);
+            assertEquals(state, puzzle.decode(code));
+            assertEquals(puzzle.isGoal(state), puzzle.isPackedGoal(code));
+
+            final int count = puzzle.packedSuccessors(code, children, actions);
+            final ArrayList<Action> expected = (ArrayList<Action>) state.getActions();
+            assertEquals(expected.size(), count);
+
+            for (int j = 0; j < count; j++) {
+                assertEquals(expected.get(j), packed_actions[actions[j]]);
+                assertEquals(state.performAction(expected.get(j)), puzzle.decode(children[j]));
+            }
+        }
+    }
+
     public void testIsSolvable() throws Throwable {
         final KSquaredPuzzle.KSquaredState goal_state = (KSquaredPuzzle.KSquaredState) PrivateAccessor.getField(puzzle, "goal");
         assertTrue(puzzle.isSolvable(goal_state));
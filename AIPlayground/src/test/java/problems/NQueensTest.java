@@ -1,6 +1,11 @@
 package problems;
 
 import junit.framework.TestCase;
+import problem_elements.Action;
+import problem_elements.State;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class NQueensTest extends TestCase {
 
@@ -82,4 +87,39 @@ public class NQueensTest extends TestCase {
         fighting_queens = 2.0f;
         assertEquals(this.queens_problem.score(state), 1.0f - ((fighting_queens * 2) / (n * (n - 1))), DELTA);
     }
-}
\ No newline at end of file
+
+    public void testApplyUndoOverView() {
+        final NQueens.NQueensState state = (NQueens.NQueensState) queens_problem.buildRandomState();
+
+        final List<Action> expected = new ArrayList<>();
+        state.getActions().forEach(expected::add);
+        assertEquals(n * (n - 1), expected.size());
+
+        // The view is live: undoing each action before the next one must give the same actions.
+        final State before = state.copy();
+        final List<Action> actions = new ArrayList<>();
+        for (Action a : state.getActions()) {
+            final int token = state.apply(a);
+            assertEquals(before.performAction(a), state);
+
+            state.undo(a, token);
+            assertEquals(before, state);
+            actions.add(a);
+        }
+
+        assertEquals(expected, actions);
+    }
+
+    public void testActionCodesOverflow() {
+        final NQueens large = new NQueens(PROBLEM_TEST_NAME, 46341);
+        final State state = large.new NQueensState(new int[large.n]);
+
+        try {
+            state.getActions();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        new NQueens(PROBLEM_TEST_NAME, 46340).new NQueensState(new int[46340]).getActions();
+    }
+}
@@ -0,0 +1,38 @@
+package problems;
+
+import junit.framework.TestCase;
+import problem_elements.Action;
+
+import java.util.List;
+
+public class PackedKSquaredPuzzleTest extends TestCase {
+
+    public final PackedKSquaredPuzzle packed = new PackedKSquaredPuzzle("test_puzzle", 4);
+
+    public void testSameAsArrayForm() {
+        KSquaredPuzzle.KSquaredState state = (KSquaredPuzzle.KSquaredState) packed.puzzle.buildRandomState();
+        PackedKSquaredPuzzle.PackedState packed_state = packed.pack(state);
+        float value = packed.getHeuristicValue(packed_state);
+
+        for (int i = 0; i < 200; i++) {
+            final List<Action> actions = packed_state.getActions();
+            assertEquals(state.getActions(), actions);
+
+            final Action a = actions.get(i % actions.size());
+            state = (KSquaredPuzzle.KSquaredState) state.performAction(a);
+            packed_state = (PackedKSquaredPuzzle.PackedState) packed_state.performAction(a);
+            value = packed.getHeuristicValue(packed_state, a, value);
+
+            assertEquals(state, packed.unpack(packed_state));
+            assertEquals(packed.pack(state), packed_state);
+            assertEquals(packed.puzzle.getHeuristicValue(state), value);
+        }
+    }
+
+    public void testGoal() {
+        final PackedKSquaredPuzzle.PackedState goal = packed.getGoalStates().iterator().next();
+        assertTrue(packed.isGoal(goal));
+        assertEquals(0f, packed.getHeuristicValue(goal));
+        assertFalse(packed.isGoal(goal.performAction(KSquaredPuzzle.UP)));
+    }
+}
@@ -0,0 +1,47 @@
+package problems;
+
+import junit.framework.TestCase;
+import problem_elements.Action;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+public class PatternDatabaseTest extends TestCase {
+
+    public final KSquaredPuzzle puzzle = new KSquaredPuzzle("test_puzzle", 3);
+    public final PatternDatabase database = new PatternDatabase(puzzle, PatternDatabase.partition(3, 4));
+
+    public void testRank() {
+        final int[] pattern = {4, 0, 8, 2};
+        final int[] unranked = new int[pattern.length];
+
+        PatternDatabase.unrank(PatternDatabase.rank(pattern, pattern.length, 9), unranked, 9);
+        for (int i = 0; i < pattern.length; i++) {
+            assertEquals(pattern[i], unranked[i]);
+        }
+    }
+
+    public void testHeuristic() throws Exception {
+        final Random random = new Random(42);
+        KSquaredPuzzle.KSquaredState state = puzzle.getGoalStates().iterator().next();
+        assertEquals(0f, database.getHeuristicValue(state));
+
+        final File file = File.createTempFile("pdb", ".bin");
+        file.deleteOnExit();
+        database.save(file.toPath());
+        final PatternDatabase loaded = PatternDatabase.load(puzzle, file.toPath());
+
+        for (int i = 1; i <= 200; i++) {
+            final List<Action> actions = state.getActions();
+            final KSquaredPuzzle.KSquaredState child = (KSquaredPuzzle.KSquaredState) state.performAction(
+                    actions.get(random.nextInt(actions.size())));
+
+            final float value = database.getHeuristicValue(child);
+            assertTrue(value <= i);  // Admissible.
+            assertEquals(value, loaded.getHeuristicValue(child));
+
+            state = child;
+        }
+    }
+}
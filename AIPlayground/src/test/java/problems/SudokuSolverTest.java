@@ -0,0 +1,79 @@
+package problems;
+
+import junit.framework.TestCase;
+
+public class SudokuSolverTest extends TestCase {
+
+    public final static String PUZZLE_TEST_NAME = "test_sudoku_solver";
+
+    /**
+     * A puzzle needing a deep search, with a unique solution.
+     */
+    public final static String HARD_PUZZLE =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    private static byte[] parse(String puzzle) {
+        final byte[] grid = new byte[puzzle.length()];
+        for (int i = 0; i < grid.length; i++) {
+            final char c = puzzle.charAt(i);
+            grid[i] = (byte) (c == '.' ? 0 : c - '0');
+        }
+
+        return grid;
+    }
+
+    public void testSolve() {
+        final Sudoku sudoku = new Sudoku(PUZZLE_TEST_NAME, 9);
+        final SudokuSolver solver = new SudokuSolver(sudoku);
+
+        final Sudoku.SudokuState initial_state = (Sudoku.SudokuState) sudoku.buildRandomState();
+        final Sudoku.SudokuState solution = solver.solve(initial_state);
+        assertNotNull(solution);
+        assertTrue(sudoku.isGoal(solution));
+
+        final byte[] puzzle = parse(HARD_PUZZLE);
+        assertEquals(1, solver.countSolutions(puzzle, 2));
+
+        final byte[] grid = puzzle.clone();
+        assertTrue(solver.solve(grid));
+        assertTrue(sudoku.isGoal(sudoku.new SudokuState(grid, new boolean[81])));
+        for (int cell = 0; cell < 81; cell++) {
+            assertTrue(puzzle[cell] == 0 || puzzle[cell] == grid[cell]);
+        }
+    }
+
+    public void testCountSolutions() {
+        final SudokuSolver solver = new SudokuSolver(new Sudoku(PUZZLE_TEST_NAME, 4));
+        assertEquals(288, solver.countSolutions(new byte[16], 1000));
+
+        final byte[] clashing = new byte[16];
+        clashing[0] = clashing[5] = 1;  // The same value in the top left box.
+        assertEquals(0, solver.countSolutions(clashing, 1000));
+        assertFalse(solver.solve(clashing));
+    }
+
+    public void testSizeLimit() {
+        final int n = Sudoku.MAX_N, sqrt_n = 5;
+        final Sudoku sudoku = new Sudoku(PUZZLE_TEST_NAME, n);
+        final SudokuSolver solver = new SudokuSolver(sudoku);
+
+        // A valid grid, with the values of each row shifted by a box row, or a box.
+        final byte[] grid = new byte[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                grid[i * n + j] = (byte) ((i * sqrt_n + i / sqrt_n + j) % n + 1);
+            }
+        }
+        assertTrue(sudoku.isGoal(sudoku.new SudokuState(grid, new boolean[n * n])));
+
+        final byte[] puzzle = grid.clone();
+        puzzle[0] = puzzle[n + 1] = puzzle[n * n - 1] = 0;
+        assertEquals(1, solver.countSolutions(puzzle, 2));
+
+        try {
+            new Sudoku(PUZZLE_TEST_NAME, 36);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package problems;
 
+import csp.ExactCover;
 import junit.framework.TestCase;
 import problem_elements.State;
 
@@ -41,4 +42,24 @@ public class SudokuTest extends TestCase {
         final Sudoku bigger_sudoku = new Sudoku("big_test_sudoku", 9);
         assertFalse(bigger_sudoku.isGoal(bigger_sudoku.buildRandomState()));
     }
+
+    public void testExactCover() {
+        // The empty 4x4 sudoku has 288 solutions.
+        assertEquals(288, sudoku.asExactCover(null).countSolutions(1000));
+        assertEquals(10, sudoku.asExactCover(null).countSolutions(10));
+
+        final Sudoku sudoku = new Sudoku(PUZZLE_TEST_NAME, 9);
+        final State initial_state = sudoku.buildRandomState();
+        final ExactCover cover = sudoku.asExactCover(initial_state);
+        assertEquals(1, cover.countSolutions(2));
+
+        final Sudoku.SudokuState solution = (Sudoku.SudokuState) sudoku.stateFromExactCover(cover.solve());
+        assertTrue(sudoku.isGoal(solution));
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                final int given = ((Sudoku.SudokuState) initial_state).get(i, j);
+                assertTrue(given == 0 || given == solution.get(i, j));
+            }
+        }
+    }
 }